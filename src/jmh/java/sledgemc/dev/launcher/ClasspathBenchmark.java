@@ -0,0 +1,97 @@
+/**
+ * @summary Measures MinecraftLauncher.buildClasspath over a generated libraries tree, with and without a version JSON.
+ */
+package sledgemc.dev.launcher;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClasspathBenchmark {
+
+    private static final String VERSION = "bench";
+    private static final String UNRESOLVED_VERSION = "bench-scan";
+
+    @Param({ "100", "400" })
+    public int libraryCount;
+
+    private Path mcDir;
+    private MinecraftLauncher resolved;
+    private MinecraftLauncher scanned;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        mcDir = Files.createTempDirectory("sledge-bench-classpath");
+        JsonArray libraries = new JsonArray();
+
+        for (int i = 0; i < libraryCount; i++) {
+            String name = "org.bench.group" + (i % 16) + ":artifact" + i + ":1." + i;
+            Path jar = mcDir.resolve("libraries").resolve(LibraryResolver.mavenPath(name));
+            Files.createDirectories(jar.getParent());
+            Files.write(jar, new byte[] { 'P', 'K', 5, 6 });
+
+            JsonObject library = new JsonObject();
+            library.addProperty("name", name);
+            if (i % 10 == 0) {
+                JsonArray rules = new JsonArray();
+                JsonObject rule = new JsonObject();
+                rule.addProperty("action", "allow");
+                JsonObject os = new JsonObject();
+                os.addProperty("name", LibraryResolver.getOsName());
+                rule.add("os", os);
+                rules.add(rule);
+                library.add("rules", rules);
+            }
+            libraries.add(library);
+        }
+
+        JsonObject json = new JsonObject();
+        json.addProperty("id", VERSION);
+        json.add("libraries", libraries);
+        Path versionDir = mcDir.resolve("versions").resolve(VERSION);
+        Files.createDirectories(versionDir);
+        Files.writeString(versionDir.resolve(VERSION + ".json"), json.toString());
+        Files.write(versionDir.resolve(VERSION + ".jar"), new byte[] { 'P', 'K', 5, 6 });
+
+        resolved = new MinecraftLauncher(mcDir.toString(), mcDir.resolve("mods").toString(), VERSION);
+        scanned = new MinecraftLauncher(mcDir.toString(), mcDir.resolve("mods").toString(), UNRESOLVED_VERSION);
+        resolved.setLogger(msg -> {
+        });
+        scanned.setLogger(msg -> {
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (Stream<Path> files = Files.walk(mcDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public String fromVersionJson() throws Exception {
+        Path versionsDir = mcDir.resolve("versions").resolve(VERSION);
+        return resolved.buildClasspath(mcDir, versionsDir, versionsDir.resolve(VERSION + ".jar"),
+                new LibraryResolver(mcDir, VERSION), new ArrayList<>(), new ArrayList<>());
+    }
+
+    @Benchmark
+    public String fromDirectoryScan() throws Exception {
+        Path versionsDir = mcDir.resolve("versions").resolve(UNRESOLVED_VERSION);
+        return scanned.buildClasspath(mcDir, versionsDir, versionsDir.resolve(UNRESOLVED_VERSION + ".jar"), null,
+                new ArrayList<>(), new ArrayList<>());
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * @summary Measures PrismPackager.createPackage with synthetic loader, agent and API jars pre-seeded in a private content store.
+ */
+package sledgemc.dev.launcher;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrismPackageBenchmark {
+
+    private static final String VERSION = "bench";
+
+    private Path home;
+    private Path output;
+    private PrismPackager packager;
+    private PrintStream originalOut;
+
+    /**
+     * Points user.home at a temporary directory before AssetDownloader is initialised in this fork, so its cache
+     * and store are private to the benchmark and no network access is needed.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        home = Files.createTempDirectory("sledge-bench-prism");
+        System.setProperty("user.home", home.toString());
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        Random random = new Random(42);
+        seed("sledge-loader-" + VERSION + ".jar", 400, random);
+        seed("sledge-agent-v1.0.0.jar", 40, random);
+        seed("sledge-api-v1.0.0.jar", 200, random);
+
+        packager = new PrismPackager(VERSION);
+        output = home.resolve("SledgeMC-" + VERSION + ".zip");
+    }
+
+    private void seed(String name, int classCount, Random random) throws Exception {
+        Path jar = home.resolve(name);
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar))) {
+            for (int i = 0; i < classCount; i++) {
+                out.putNextEntry(new ZipEntry("bench/" + name.replace('.', '_') + "/Class" + i + ".class"));
+                byte[] body = new byte[2048];
+                for (int b = 0; b < body.length; b++) {
+                    body[b] = (byte) (random.nextInt(4) == 0 ? random.nextInt(256) : 'a' + (b % 16));
+                }
+                out.write(body);
+                out.closeEntry();
+            }
+        }
+        AssetDownloader.getStore().ingest(name, jar);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        System.setOut(originalOut);
+        try (Stream<Path> files = Files.walk(home)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Path createPackage() throws Exception {
+        packager.createPackage(output);
+        return output;
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * @summary Measures MappingService.loadMappings from the text file (cold) and from the precompiled binary cache (warm).
+ */
+package sledgemc.dev.transform;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingLoadBenchmark {
+
+    @Param({ "2000", "8000" })
+    public int classCount;
+
+    private Path gameDir;
+    private Path binaryFile;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        gameDir = Files.createTempDirectory("sledge-bench-load");
+        Path mappingFile = SyntheticMappings.write(gameDir, "bench", classCount);
+        binaryFile = mappingFile.resolveSibling(mappingFile.getFileName() + ".bin");
+        new MappingService(gameDir).loadMappings("bench", "intermediary");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        System.setOut(originalOut);
+        try (Stream<Path> files = Files.walk(gameDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ColdCache {
+        @Setup(Level.Invocation)
+        public void dropBinary(MappingLoadBenchmark benchmark) throws Exception {
+            Files.deleteIfExists(benchmark.binaryFile);
+        }
+    }
+
+    @Benchmark
+    public MappingService loadCompiled() {
+        MappingService service = new MappingService(gameDir);
+        service.loadMappings("bench", "intermediary");
+        return service;
+    }
+
+    @Benchmark
+    public MappingService loadFromText(ColdCache cold) {
+        MappingService service = new MappingService(gameDir);
+        service.loadMappings("bench", "intermediary");
+        return service;
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * @summary Compares the owner-indexed MappingService lookups against the flat concatenated-key maps they replaced.
+ */
+package sledgemc.dev.transform;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingLookupBenchmark {
+
+    private static final int CLASS_COUNT = 8000;
+    private static final int QUERY_COUNT = 1024;
+
+    private Path gameDir;
+    private MappingService service;
+
+    private final Map<String, String> flatClasses = new HashMap<>();
+    private final Map<String, String> flatMethods = new HashMap<>();
+    private final Map<String, String> flatFields = new HashMap<>();
+
+    private String[] dottedOwners;
+    private String[] internalOwners;
+    private String[] methodNames;
+    private String[] methodDescs;
+    private String[] fieldNames;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        gameDir = Files.createTempDirectory("sledge-bench-mappings");
+        SyntheticMappings.write(gameDir, "bench", CLASS_COUNT);
+
+        service = new MappingService(gameDir);
+        service.loadMappings("bench", "intermediary");
+
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            String owner = SyntheticMappings.className(i);
+            flatClasses.put(owner, service.mapClassName(owner).replace('.', '/'));
+            for (int m = 0; m < SyntheticMappings.METHODS_PER_CLASS; m++) {
+                String name = SyntheticMappings.methodName(i, m);
+                String desc = SyntheticMappings.methodDesc(i, m, CLASS_COUNT);
+                flatMethods.put(owner + "." + name + desc, service.mapMethodName(owner, name, desc));
+            }
+            for (int f = 0; f < SyntheticMappings.FIELDS_PER_CLASS; f++) {
+                String name = SyntheticMappings.fieldName(i, f);
+                flatFields.put(owner + "." + name, service.mapFieldName(owner, name));
+            }
+        }
+
+        dottedOwners = new String[QUERY_COUNT];
+        internalOwners = new String[QUERY_COUNT];
+        methodNames = new String[QUERY_COUNT];
+        methodDescs = new String[QUERY_COUNT];
+        fieldNames = new String[QUERY_COUNT];
+        for (int q = 0; q < QUERY_COUNT; q++) {
+            int owner = (q * 7919) % CLASS_COUNT;
+            int member = q % SyntheticMappings.FIELDS_PER_CLASS;
+            internalOwners[q] = SyntheticMappings.className(owner);
+            dottedOwners[q] = internalOwners[q].replace('/', '.');
+            methodNames[q] = SyntheticMappings.methodName(owner, member);
+            methodDescs[q] = SyntheticMappings.methodDesc(owner, member, CLASS_COUNT);
+            fieldNames[q] = SyntheticMappings.fieldName(owner, member);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (Stream<Path> files = Files.walk(gameDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (QUERY_COUNT - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public String indexedClass() {
+        return service.mapClassName(dottedOwners[next()]);
+    }
+
+    @Benchmark
+    public String indexedMethod() {
+        int q = next();
+        return service.mapMethodName(internalOwners[q], methodNames[q], methodDescs[q]);
+    }
+
+    @Benchmark
+    public String indexedField() {
+        int q = next();
+        return service.mapFieldName(dottedOwners[q], fieldNames[q]);
+    }
+
+    @Benchmark
+    public String flatClass() {
+        String internal = dottedOwners[next()].replace('.', '/');
+        return flatClasses.getOrDefault(internal, internal).replace('/', '.');
+    }
+
+    @Benchmark
+    public String flatMethod() {
+        int q = next();
+        return flatMethods.getOrDefault(internalOwners[q].replace('.', '/') + "." + methodNames[q] + methodDescs[q],
+                methodNames[q]);
+    }
+
+    @Benchmark
+    public String flatField() {
+        int q = next();
+        return flatFields.getOrDefault(dottedOwners[q].replace('.', '/') + "." + fieldNames[q], fieldNames[q]);
+    }
+}
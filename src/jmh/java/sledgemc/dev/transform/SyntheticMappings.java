@@ -0,0 +1,73 @@
+/**
+ * @summary Generates deterministic Tiny v2 mapping files so mapping benchmarks run offline.
+ */
+package sledgemc.dev.transform;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class SyntheticMappings {
+
+    public static final int METHODS_PER_CLASS = 12;
+    public static final int FIELDS_PER_CLASS = 6;
+
+    private SyntheticMappings() {
+    }
+
+    /**
+     * Writes {@code gameDir/mappings/intermediary-<version>.tiny} with the given number of classes, laid out the
+     * way {@link MappingService#loadMappings(String, String)} expects to find it.
+     */
+    public static Path write(Path gameDir, String version, int classCount) throws IOException {
+        Path mappingsDir = gameDir.resolve("mappings");
+        Files.createDirectories(mappingsDir);
+        Path file = mappingsDir.resolve("intermediary-" + version + ".tiny");
+
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("tiny\t2\t0\tofficial\tintermediary\n");
+            for (int i = 0; i < classCount; i++) {
+                out.write("c\t" + officialClass(i) + "\t" + className(i) + "\n");
+                for (int m = 0; m < METHODS_PER_CLASS; m++) {
+                    String desc = "(L" + officialClass((i + m) % classCount) + ";I)V";
+                    out.write("\tm\t" + desc + "\t" + officialName(m) + "\tmethod_" + (i * METHODS_PER_CLASS + m) + "\n");
+                }
+                for (int f = 0; f < FIELDS_PER_CLASS; f++) {
+                    out.write("\tf\tI\t" + officialName(f) + "\tfield_" + (i * FIELDS_PER_CLASS + f) + "\n");
+                }
+            }
+        }
+        return file;
+    }
+
+    public static String className(int index) {
+        return "net/minecraft/class_" + index;
+    }
+
+    public static String methodName(int classIndex, int method) {
+        return "method_" + (classIndex * METHODS_PER_CLASS + method);
+    }
+
+    public static String methodDesc(int classIndex, int method, int classCount) {
+        return "(L" + className((classIndex + method) % classCount) + ";I)V";
+    }
+
+    public static String fieldName(int classIndex, int field) {
+        return "field_" + (classIndex * FIELDS_PER_CLASS + field);
+    }
+
+    private static String officialClass(int index) {
+        StringBuilder sb = new StringBuilder();
+        int value = index;
+        do {
+            sb.append((char) ('a' + value % 26));
+            value /= 26;
+        } while (value > 0);
+        return sb.toString();
+    }
+
+    private static String officialName(int index) {
+        return String.valueOf((char) ('a' + index));
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * @summary Measures TransformService.transform over synthetic transformer chains, for dispatch cost and for hot classes.
+ */
+package sledgemc.dev.transform;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.InputStream;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformChainBenchmark {
+
+    private static final int PACKAGE_COUNT = 64;
+    private static final int NAME_COUNT = 1024;
+
+    @Param({ "8", "32" })
+    public int chainLength;
+
+    @Param({ "false", "true" })
+    public String metrics;
+
+    private byte[] classBytes;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        System.setProperty("sledgemc.transformMetrics", metrics);
+        try (InputStream in = TransformService.class.getResourceAsStream("TransformService.class")) {
+            classBytes = in.readAllBytes();
+        }
+    }
+
+    /**
+     * Mostly unmatched class names spread over many packages, to isolate dispatch cost. "predicate" transformers
+     * only implement shouldTransform; "targeted" ones declare their package.
+     */
+    @State(Scope.Thread)
+    public static class Dispatch {
+        @Param({ "predicate", "targeted" })
+        public String dispatch;
+
+        TransformService service;
+        String[] classNames;
+        int cursor;
+
+        @Setup(Level.Trial)
+        public void setup(TransformChainBenchmark benchmark) {
+            service = new TransformService();
+            for (int i = 0; i < benchmark.chainLength; i++) {
+                String pkg = "net.minecraft.pkg" + (i % PACKAGE_COUNT);
+                service.registerTransformer(
+                        "targeted".equals(dispatch) ? new TargetedTransformer(pkg) : new PredicateTransformer(pkg));
+            }
+
+            classNames = new String[NAME_COUNT];
+            for (int i = 0; i < NAME_COUNT; i++) {
+                classNames[i] = "net.minecraft.pkg" + (i % PACKAGE_COUNT) + ".Class" + i;
+            }
+        }
+    }
+
+    /**
+     * One class rewritten by every transformer, either through the shared ClassNode or by byte[] transformers that
+     * parse and write it themselves.
+     */
+    @State(Scope.Thread)
+    public static class HotClass {
+        @Param({ "node", "bytes" })
+        public String style;
+
+        TransformService service;
+
+        @Setup(Level.Trial)
+        public void setup(TransformChainBenchmark benchmark) {
+            service = new TransformService();
+            for (int i = 0; i < benchmark.chainLength; i++) {
+                service.registerTransformer(
+                        "node".equals(style) ? new FieldNodeTransformer(i) : new FieldBytesTransformer(i));
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] dispatch(Dispatch state) {
+        state.cursor = (state.cursor + 1) & (NAME_COUNT - 1);
+        return state.service.transform(state.classNames[state.cursor], classBytes);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 5, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public byte[] hotClass(HotClass state) {
+        return state.service.transform("sledgemc.dev.transform.TransformService", classBytes);
+    }
+
+    private static class PredicateTransformer implements ClassTransformer {
+        private final String prefix;
+
+        PredicateTransformer(String pkg) {
+            this.prefix = pkg + ".";
+        }
+
+        @Override
+        public boolean shouldTransform(String className) {
+            return className.startsWith(prefix);
+        }
+
+        @Override
+        public byte[] transform(String className, byte[] classBytes) {
+            return classBytes;
+        }
+    }
+
+    private static class TargetedTransformer extends PredicateTransformer {
+        private final Set<String> packages;
+
+        TargetedTransformer(String pkg) {
+            super(pkg);
+            this.packages = Set.of(pkg);
+        }
+
+        @Override
+        public Set<String> getTargetPackages() {
+            return packages;
+        }
+    }
+
+    private static class FieldNodeTransformer implements ClassNodeTransformer {
+        private final String field;
+
+        FieldNodeTransformer(int index) {
+            this.field = "bench$field" + index;
+        }
+
+        @Override
+        public boolean shouldTransform(String className) {
+            return true;
+        }
+
+        @Override
+        public boolean transform(String className, ClassNode node) {
+            node.fields.add(new FieldNode(Opcodes.ACC_PRIVATE, field, "I", null, null));
+            return true;
+        }
+
+        @Override
+        public int getWriterFlags() {
+            return ClassWriter.COMPUTE_MAXS;
+        }
+    }
+
+    private static class FieldBytesTransformer implements ClassTransformer {
+        private final FieldNodeTransformer delegate;
+
+        FieldBytesTransformer(int index) {
+            this.delegate = new FieldNodeTransformer(index);
+        }
+
+        @Override
+        public boolean shouldTransform(String className) {
+            return true;
+        }
+
+        @Override
+        public byte[] transform(String className, byte[] classBytes) {
+            return delegate.transform(className, classBytes);
+        }
+    }
+}
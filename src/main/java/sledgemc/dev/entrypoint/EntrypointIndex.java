@@ -0,0 +1,63 @@
+/**
+ * @summary Reads and writes the compact entrypoint index resource generated into mod jars at compile time.
+ */
+package sledgemc.dev.entrypoint;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public final class EntrypointIndex {
+
+    /**
+     * Location of the index inside a mod jar.
+     */
+    public static final String RESOURCE = "META-INF/sledgemc/entrypoints.idx";
+
+    private static final String HEADER = "sledgemc-entrypoints 1";
+
+    private EntrypointIndex() {
+    }
+
+    /**
+     * Writes one {@code group class} line per entrypoint, groups and classes sorted so the output is reproducible.
+     */
+    public static void write(Map<String, ? extends Collection<String>> entrypoints, Writer writer) throws IOException {
+        BufferedWriter out = new BufferedWriter(writer);
+        out.write(HEADER);
+        out.newLine();
+        for (Map.Entry<String, ? extends Collection<String>> entry : new TreeMap<>(entrypoints).entrySet()) {
+            for (String className : new TreeSet<>(entry.getValue())) {
+                out.write(entry.getKey());
+                out.write(' ');
+                out.write(className);
+                out.newLine();
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads an index written by {@link #write}, returning entrypoint classes by group.
+     */
+    public static Map<String, List<String>> read(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (!HEADER.equals(header))
+            throw new IOException("Unsupported entrypoint index: " + header);
+
+        Map<String, List<String>> entrypoints = new TreeMap<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank())
+                continue;
+            int space = line.indexOf(' ');
+            if (space <= 0)
+                throw new IOException("Malformed entrypoint index line: " + line);
+            entrypoints.computeIfAbsent(line.substring(0, space), k -> new ArrayList<>())
+                    .add(line.substring(space + 1).trim());
+        }
+        entrypoints.replaceAll((group, classes) -> List.copyOf(classes));
+        return entrypoints;
+    }
+}
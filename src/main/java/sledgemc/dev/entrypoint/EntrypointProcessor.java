@@ -0,0 +1,65 @@
+/**
+ * @summary Annotation processor that writes the entrypoint index of a mod at compile time, so the launcher does not have to scan its classes.
+ */
+package sledgemc.dev.entrypoint;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+@SupportedAnnotationTypes("sledgemc.dev.entrypoint.Entrypoint")
+public class EntrypointProcessor extends AbstractProcessor {
+
+    private final Map<String, Set<String>> entrypoints = new TreeMap<>();
+    private final List<Element> originating = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Entrypoint.class)) {
+            if (!element.getKind().isClass()) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "@Entrypoint can only be applied to classes, enums and records", element);
+                continue;
+            }
+
+            TypeElement type = (TypeElement) element;
+            String group = type.getAnnotation(Entrypoint.class).value();
+            String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+            entrypoints.computeIfAbsent(group, k -> new TreeSet<>()).add(className);
+            originating.add(type);
+        }
+
+        if (roundEnv.processingOver() && !entrypoints.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    EntrypointIndex.RESOURCE, originating.toArray(new Element[0]));
+            // openWriter() would use the compiler's -encoding, while the index is always read as UTF-8
+            try (Writer writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+                EntrypointIndex.write(entrypoints, writer);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write " + EntrypointIndex.RESOURCE + ": " + e.getMessage());
+        }
+    }
+}
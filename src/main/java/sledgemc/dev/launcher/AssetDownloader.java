@@ -4,12 +4,14 @@
  */
 package sledgemc.dev.launcher;
 
-import java.io.InputStream;
-import java.net.URI;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
 import java.util.function.Consumer;
 
 public class AssetDownloader {
@@ -23,33 +25,182 @@ public class AssetDownloader {
     }
 
     private static final Path CACHE_DIR = Paths.get(System.getProperty("user.home"), ".sledgemc", "cache");
+    private static final Path DOWNLOADS_DIR = CACHE_DIR.resolve("downloads");
+    private static final DownloadEngine ENGINE = new DownloadEngine();
+    private static final ContentStore STORE = new ContentStore(CACHE_DIR);
+    private static final Map<String, CompletableFuture<Path>> IN_FLIGHT = new ConcurrentHashMap<>();
+    private static final ExecutorService FETCHERS = Executors.newVirtualThreadPerTaskExecutor();
+
+    public record Artifacts(Path loader, Path agent, Path api) {
+    }
 
     public static Path ensureAgent(Consumer<String> logger) throws Exception {
-        return ensureFile(AGENT_URL, "sledge-agent-v1.0.0.jar", logger);
+        return ensureFile(agentRequest(), logger);
     }
 
     public static Path ensureApi(Consumer<String> logger) throws Exception {
-        return ensureFile(API_URL, "sledge-api-v1.0.0.jar", logger);
+        return ensureFile(apiRequest(), logger);
     }
 
     public static Path ensureLoader(String version, Consumer<String> logger) throws Exception {
-        return ensureFile(getLoaderUrl(version), "sledge-loader-" + version + ".jar", logger);
+        return ensureFile(loaderRequest(version), logger);
     }
 
-    private static Path ensureFile(String url, String fileName, Consumer<String> logger) throws Exception {
-        Files.createDirectories(CACHE_DIR);
-        Path targetPath = CACHE_DIR.resolve(fileName);
+    /**
+     * Fetches the loader, agent and API concurrently, skipping whatever is already in the store.
+     */
+    public static Artifacts ensureAll(String version, Consumer<String> logger) throws Exception {
+        List<CompletableFuture<Path>> fetches = new ArrayList<>();
+        for (DownloadEngine.Request request : List.of(loaderRequest(version), agentRequest(), apiRequest())) {
+            fetches.add(fetch(request, logger));
+        }
 
-        if (!Files.exists(targetPath)) {
-            logger.accept("[SledgeMC] Downloading remote " + fileName + " from GitHub...");
-            try (InputStream in = URI.create(url).toURL().openStream()) {
-                Files.copy(in, targetPath, StandardCopyOption.REPLACE_EXISTING);
+        Path[] paths = new Path[fetches.size()];
+        Exception failure = null;
+        for (int i = 0; i < fetches.size(); i++) {
+            try {
+                paths[i] = await(fetches.get(i));
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        if (failure != null)
+            throw failure;
+        return new Artifacts(paths[0], paths[1], paths[2]);
+    }
+
+    public static ContentStore getStore() {
+        return STORE;
+    }
+
+    private static DownloadEngine.Request agentRequest() {
+        return DownloadEngine.Request.of(AGENT_URL, DOWNLOADS_DIR.resolve("sledge-agent-v1.0.0.jar"));
+    }
+
+    private static DownloadEngine.Request apiRequest() {
+        return DownloadEngine.Request.of(API_URL, DOWNLOADS_DIR.resolve("sledge-api-v1.0.0.jar"));
+    }
+
+    private static DownloadEngine.Request loaderRequest(String version) {
+        return DownloadEngine.Request.of(getLoaderUrl(version),
+                DOWNLOADS_DIR.resolve("sledge-loader-" + version + ".jar"));
+    }
+
+    private static Path ensureFile(DownloadEngine.Request request, Consumer<String> logger) throws Exception {
+        return await(fetch(request, logger));
+    }
+
+    /**
+     * Single-flight fetch keyed by the cache file name: concurrent callers asking for the same file, such as batch
+     * jobs for several versions that all need the agent and API, share one lookup and download.
+     */
+    private static CompletableFuture<Path> fetch(DownloadEngine.Request request, Consumer<String> logger) {
+        String key = request.target().getFileName().toString();
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> existing = IN_FLIGHT.putIfAbsent(key, created);
+        if (existing != null) {
+            logger.accept("[SledgeMC] Waiting for in-flight fetch of " + key);
+            return existing;
+        }
+
+        FETCHERS.execute(() -> {
+            try {
+                created.complete(fetchNow(request, logger));
+            } catch (Throwable t) {
+                created.completeExceptionally(t);
+            } finally {
+                IN_FLIGHT.remove(key, created);
             }
-            logger.accept("[SledgeMC] " + fileName + " downloaded successfully to: " + targetPath);
+        });
+        return created;
+    }
+
+    private static Path fetchNow(DownloadEngine.Request request, Consumer<String> logger) throws Exception {
+        Path stored = findStored(request, logger);
+        if (stored != null)
+            return stored;
+
+        Files.createDirectories(DOWNLOADS_DIR);
+        ENGINE.download(withPublishedChecksum(request), logger);
+        return store(request, logger);
+    }
+
+    /**
+     * These jars end up on the game's classpath, so a download is only accepted if it matches the checksum the
+     * repository publishes for it.
+     */
+    private static DownloadEngine.Request withPublishedChecksum(DownloadEngine.Request request) throws IOException {
+        try {
+            return DownloadEngine.Request.sha1(request.url(), request.target(), ENGINE.publishedSha1(request.url()));
+        } catch (IOException e) {
+            throw new IOException("Cannot verify " + request.target().getFileName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Path await(CompletableFuture<Path> fetch) throws Exception {
+        try {
+            return fetch.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause)
+                throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Looks the file up in the content store, adopting a plain file left in the cache directory by older launcher
+     * versions. Returns null when the file still has to be downloaded.
+     */
+    private static Path findStored(DownloadEngine.Request request, Consumer<String> logger) throws Exception {
+        String fileName = request.target().getFileName().toString();
+        Path stored = STORE.lookup(fileName);
+
+        if (stored == null) {
+            Path legacy = CACHE_DIR.resolve(fileName);
+            if (Files.isRegularFile(legacy) && isTrustedLegacy(request, legacy, logger)) {
+                stored = STORE.ingest(fileName, legacy);
+            }
+        }
+
+        if (stored != null) {
+            logger.accept("[SledgeMC] Using cached " + fileName + ": " + stored);
         } else {
-            logger.accept("[SledgeMC] Using cached " + fileName + ": " + targetPath);
+            logger.accept("[SledgeMC] Downloading remote " + fileName + " from GitHub...");
         }
+        return stored;
+    }
+
+    /**
+     * Files cached by older launcher versions were never verified. They are checked against the published checksum
+     * and discarded on a mismatch; if the checksum cannot be fetched they are still used, so offline installs keep
+     * working.
+     */
+    private static boolean isTrustedLegacy(DownloadEngine.Request request, Path legacy, Consumer<String> logger)
+            throws IOException {
+        String expected;
+        try {
+            expected = ENGINE.publishedSha1(request.url());
+        } catch (IOException e) {
+            logger.accept("[SledgeMC] Using unverified cached " + legacy.getFileName() + " (" + e.getMessage() + ")");
+            return true;
+        }
+
+        if (expected.equalsIgnoreCase(FileHashes.hash(legacy, FileHashes.SHA1)))
+            return true;
+        logger.accept("[SledgeMC] Discarding cached " + legacy.getFileName() + ": checksum mismatch");
+        Files.deleteIfExists(legacy);
+        return false;
+    }
 
-        return targetPath;
+    private static Path store(DownloadEngine.Request request, Consumer<String> logger) throws Exception {
+        String fileName = request.target().getFileName().toString();
+        Path stored = STORE.ingest(fileName, request.target());
+        logger.accept("[SledgeMC] " + fileName + " downloaded successfully to: " + stored);
+        return stored;
     }
 }
@@ -0,0 +1,174 @@
+/**
+ * @summary Verifies the objects of a Minecraft asset index in parallel and downloads the missing or corrupt ones.
+ */
+package sledgemc.dev.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+public class AssetSync {
+
+    public static final String DEFAULT_BASE_URL = "https://resources.download.minecraft.net";
+
+    private static final Path CACHE_DIR = Paths.get(System.getProperty("user.home"), ".sledgemc", "cache");
+    private static final Gson GSON = new Gson();
+    private static final java.lang.reflect.Type VERIFIED_TYPE = new TypeToken<Map<String, long[]>>() {
+    }.getType();
+
+    public record Result(int objects, int cached, int hashed, int downloaded, long elapsedMs) {
+    }
+
+    private record AssetObject(String hash, long size) {
+    }
+
+    private final Path assetsDir;
+    private final String baseUrl;
+    private final DownloadEngine engine;
+    private final Path verifiedFile;
+
+    public AssetSync(Path assetsDir, DownloadEngine engine) {
+        this(assetsDir, System.getProperty("sledgemc.assetsBaseUrl", DEFAULT_BASE_URL), engine,
+                CACHE_DIR.resolve("assets-verified-"
+                        + FileHashes.sha256(assetsDir.toAbsolutePath().normalize().toString()).substring(0, 16)
+                        + ".json"));
+    }
+
+    /**
+     * @param baseUrl      where objects are fetched from as {@code <baseUrl>/<first two hash chars>/<hash>}
+     * @param verifiedFile remembers the size and mtime of objects whose hash was already checked
+     */
+    public AssetSync(Path assetsDir, String baseUrl, DownloadEngine engine, Path verifiedFile) {
+        this.assetsDir = assetsDir;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.engine = engine;
+        this.verifiedFile = verifiedFile.toAbsolutePath();
+    }
+
+    /**
+     * Makes sure the index and every object it references are present and intact. Objects whose size and mtime
+     * match the verified cache are trusted; the rest are hashed, and missing or mismatching ones are downloaded.
+     */
+    public Result sync(LibraryResolver.AssetIndex assetIndex, Consumer<String> logger) throws IOException {
+        long start = System.nanoTime();
+        Path indexFile = assetsDir.resolve("indexes").resolve(assetIndex.id() + ".json");
+        if (assetIndex.url() != null) {
+            engine.download(DownloadEngine.Request.sha1(assetIndex.url(), indexFile, assetIndex.sha1()), logger);
+        } else if (!Files.exists(indexFile)) {
+            throw new NoSuchFileException("Asset index not found: " + indexFile);
+        }
+
+        Collection<AssetObject> objects = readObjects(indexFile);
+        Map<String, long[]> previous = loadVerified();
+        // other versions' indexes share the objects directory, so their entries are carried over
+        Map<String, long[]> verified = new ConcurrentHashMap<>(previous);
+        List<DownloadEngine.Request> missing = Collections.synchronizedList(new ArrayList<>());
+        LongAdder cached = new LongAdder();
+        LongAdder hashed = new LongAdder();
+
+        objects.parallelStream().forEach(object -> {
+            Path file = objectPath(object.hash());
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                long modified = attributes.lastModifiedTime().toMillis();
+                if (attributes.size() == object.size()) {
+                    long[] known = previous.get(object.hash());
+                    if (known != null && known[0] == object.size() && known[1] == modified) {
+                        verified.put(object.hash(), known);
+                        cached.increment();
+                        return;
+                    }
+                    hashed.increment();
+                    // a streamed read holds nothing open afterwards, so the delete below also works on Windows
+                    if (object.hash().equalsIgnoreCase(FileHashes.sha1(file))) {
+                        verified.put(object.hash(), new long[] { object.size(), modified });
+                        return;
+                    }
+                }
+                Files.deleteIfExists(file);
+            } catch (NoSuchFileException e) {
+                // not downloaded yet
+            } catch (IOException e) {
+                logger.accept("[SledgeMC] Could not verify asset " + object.hash() + ": " + e.getMessage());
+            }
+            missing.add(DownloadEngine.Request.sha1(
+                    baseUrl + "/" + object.hash().substring(0, 2) + "/" + object.hash(), file, object.hash()));
+        });
+
+        if (!missing.isEmpty()) {
+            logger.accept("[SledgeMC] Downloading " + missing.size() + " of " + objects.size() + " assets...");
+            try {
+                engine.downloadAll(missing, logger);
+            } finally {
+                for (DownloadEngine.Request request : missing) {
+                    recordDownloaded(request, verified);
+                }
+                saveVerified(verified);
+            }
+        } else if (hashed.sum() > 0) {
+            saveVerified(verified);
+        }
+
+        return new Result(objects.size(), cached.intValue(), hashed.intValue(), missing.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void recordDownloaded(DownloadEngine.Request request, Map<String, long[]> verified) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(request.target(), BasicFileAttributes.class);
+            verified.put(request.sha1(), new long[] { attributes.size(), attributes.lastModifiedTime().toMillis() });
+        } catch (IOException e) {
+            // failed downloads are retried on the next sync
+        }
+    }
+
+    private Collection<AssetObject> readObjects(Path indexFile) throws IOException {
+        JsonObject index = JsonParser.parseString(Files.readString(indexFile)).getAsJsonObject();
+        JsonObject objects = index.getAsJsonObject("objects");
+        if (objects == null)
+            return List.of();
+
+        // several names can share one object, which is stored once under its hash
+        Map<String, AssetObject> byHash = new HashMap<>(objects.size() * 2);
+        for (Map.Entry<String, JsonElement> entry : objects.entrySet()) {
+            JsonObject object = entry.getValue().getAsJsonObject();
+            String hash = object.get("hash").getAsString().toLowerCase(Locale.ROOT);
+            byHash.putIfAbsent(hash, new AssetObject(hash, object.get("size").getAsLong()));
+        }
+        return byHash.values();
+    }
+
+    Path objectPath(String hash) {
+        return assetsDir.resolve("objects").resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private Map<String, long[]> loadVerified() {
+        if (!Files.exists(verifiedFile))
+            return Map.of();
+        try {
+            Map<String, long[]> loaded = GSON.fromJson(Files.readString(verifiedFile), VERIFIED_TYPE);
+            return loaded != null ? loaded : Map.of();
+        } catch (Exception e) {
+            System.err.println("[SledgeMC] Failed to read asset verification cache: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private void saveVerified(Map<String, long[]> verified) {
+        try {
+            AtomicFiles.writeString(verifiedFile, GSON.toJson(new TreeMap<>(verified), VERIFIED_TYPE));
+        } catch (IOException e) {
+            System.err.println("[SledgeMC] Failed to save asset verification cache: " + e.getMessage());
+        }
+    }
+}
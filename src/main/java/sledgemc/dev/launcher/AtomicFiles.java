@@ -0,0 +1,57 @@
+/**
+ * @summary Writes files through a temporary sibling and an atomic move, so readers never see a partial file.
+ */
+package sledgemc.dev.launcher;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+public final class AtomicFiles {
+
+    @FunctionalInterface
+    public interface Output {
+        void writeTo(Path temp) throws IOException;
+    }
+
+    private AtomicFiles() {
+    }
+
+    /**
+     * Fills a temporary file next to the target, then moves it over the target. The temporary file is removed if
+     * anything fails.
+     */
+    public static void write(Path target, Output output) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        try {
+            output.writeTo(temp);
+            move(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public static void write(Path target, byte[] content) throws IOException {
+        write(target, temp -> Files.write(temp, content));
+    }
+
+    public static void writeString(Path target, String content) throws IOException {
+        write(target, temp -> Files.writeString(temp, content, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Replaces the target with the source, atomically where the file system supports it.
+     */
+    public static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * @summary Runs profile install and Prism export jobs for several versions concurrently, reporting the progress of each job.
+ */
+package sledgemc.dev.launcher;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+public class BatchOrchestrator {
+
+    public static final int DEFAULT_PARALLELISM = 4;
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    public enum Kind {
+        INSTALL, EXPORT
+    }
+
+    public enum State {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+
+    /**
+     * One unit of work. The output is the zip to write for exports and unused for installs.
+     */
+    public record Job(Kind kind, String version, Path output) {
+
+        public static Job install(String version) {
+            return new Job(Kind.INSTALL, version, null);
+        }
+
+        public static Job export(String version, Path output) {
+            return new Job(Kind.EXPORT, version, output);
+        }
+
+        public String describe() {
+            return kind.name().toLowerCase() + " " + version;
+        }
+    }
+
+    public record Status(Job job, State state, String message, long elapsedMs) {
+    }
+
+    /**
+     * Receives every state change of every job, from the worker thread running it.
+     */
+    public interface Listener {
+        void onStatus(Status status);
+    }
+
+    private final String minecraftPath;
+    private final Semaphore permits;
+
+    public BatchOrchestrator(String minecraftPath) {
+        this(minecraftPath, DEFAULT_PARALLELISM);
+    }
+
+    public BatchOrchestrator(String minecraftPath, int parallelism) {
+        this.minecraftPath = minecraftPath;
+        this.permits = new Semaphore(Math.max(1, parallelism));
+    }
+
+    /**
+     * An install and, when an export directory is given, an export job for every version.
+     */
+    public static List<Job> jobsFor(List<String> versions, boolean install, Path exportDir) {
+        List<Job> jobs = new ArrayList<>();
+        for (String version : versions) {
+            if (install)
+                jobs.add(Job.install(version));
+            if (exportDir != null)
+                jobs.add(Job.export(version, exportDir.resolve("SledgeMC-" + version + ".zip")));
+        }
+        return jobs;
+    }
+
+    /**
+     * Starts every job without blocking the caller. Jobs run concurrently up to the configured parallelism; one
+     * failing does not stop the others. The returned future completes with the final status of each job, in the
+     * order given.
+     */
+    public CompletableFuture<List<Status>> run(List<Job> jobs, Listener listener) {
+        List<CompletableFuture<Status>> futures = new ArrayList<>(jobs.size());
+        for (Job job : jobs) {
+            listener.onStatus(new Status(job, State.QUEUED, null, 0));
+        }
+        for (Job job : jobs) {
+            futures.add(CompletableFuture.supplyAsync(() -> execute(job, listener), EXECUTOR));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    private Status execute(Job job, Listener listener) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Status cancelled = new Status(job, State.FAILED, "interrupted", 0);
+            listener.onStatus(cancelled);
+            return cancelled;
+        }
+
+        long start = System.nanoTime();
+        Status result;
+        try {
+            listener.onStatus(new Status(job, State.RUNNING, null, 0));
+            String message = switch (job.kind()) {
+                case INSTALL -> new ProfileInstaller(minecraftPath, job.version()).install().summary();
+                case EXPORT -> {
+                    new PrismPackager(job.version()).createPackage(job.output());
+                    yield "exported to " + job.output();
+                }
+            };
+            result = new Status(job, State.DONE, message, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            result = new Status(job, State.FAILED, e.getMessage() != null ? e.getMessage() : e.toString(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            permits.release();
+        }
+        listener.onStatus(result);
+        return result;
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * @summary Manages dynamic AppCDS archives for the game JVM, keyed by the resolved classpath and the JDK, and tracks startup times with and without them.
+ */
+package sledgemc.dev.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class CdsArchive {
+
+    public static final Path CDS_DIR = Paths.get(System.getProperty("user.home"), ".sledgemc", "cds");
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final int KEPT_TIMINGS = 10;
+    static final int KEPT_ARCHIVES = 6;
+    private static final Pattern ARCHIVE_NAME = Pattern.compile("(.+-[0-9a-f]{16}\\.jsa)(\\.timings\\.json)?");
+
+    public enum Mode {
+        RECORD, USE, DISABLED
+    }
+
+    private static class Timings {
+        List<Long> withoutArchive = new ArrayList<>();
+        List<Long> withArchive = new ArrayList<>();
+    }
+
+    private final Path archive;
+    private final Path timingsFile;
+    private final Mode mode;
+
+    private CdsArchive(Path archive, Mode mode) {
+        this.archive = archive;
+        this.timingsFile = archive == null ? null : archive.resolveSibling(archive.getFileName() + ".timings.json");
+        this.mode = mode;
+    }
+
+    /**
+     * Picks the archive for a launch plan and the JDK. The plan's fingerprint already covers every classpath jar's
+     * size and mtime and the Java path, so nothing is read from disk to key the archive. An existing archive is used;
+     * otherwise the next run records one at exit. Only the {@link #KEPT_ARCHIVES} most recently used archives are
+     * kept, so instances sharing a version each keep theirs.
+     */
+    public static CdsArchive forPlan(String version, String planFingerprint) {
+        if ("false".equals(System.getProperty("sledgemc.cds")))
+            return new CdsArchive(null, Mode.DISABLED);
+
+        try {
+            String key = computeKey(planFingerprint).substring(0, 16);
+            Path archive = CDS_DIR.resolve(version + "-" + key + ".jsa");
+            Files.createDirectories(CDS_DIR);
+            markUsed(archive);
+            prune(CDS_DIR, archive, KEPT_ARCHIVES);
+
+            boolean usable = Files.isRegularFile(archive) && Files.size(archive) > 0;
+            return new CdsArchive(archive, usable ? Mode.USE : Mode.RECORD);
+        } catch (IOException e) {
+            System.err.println("[SledgeMC] CDS archive unavailable: " + e.getMessage());
+            return new CdsArchive(null, Mode.DISABLED);
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public Path getArchive() {
+        return archive;
+    }
+
+    public List<String> getJvmArgs() {
+        return switch (mode) {
+            case USE -> List.of("-XX:SharedArchiveFile=" + archive, "-Xshare:auto");
+            case RECORD -> List.of("-XX:ArchiveClassesAtExit=" + archive);
+            case DISABLED -> List.of();
+        };
+    }
+
+    /**
+     * Records how long the game took to start in this mode and returns a comparison with the other mode.
+     */
+    public String recordStartup(long millis) {
+        if (mode == Mode.DISABLED)
+            return "Startup took " + millis + " ms (CDS disabled)";
+
+        Timings timings = loadTimings();
+        List<Long> own = mode == Mode.USE ? timings.withArchive : timings.withoutArchive;
+        List<Long> other = mode == Mode.USE ? timings.withoutArchive : timings.withArchive;
+        own.add(millis);
+        while (own.size() > KEPT_TIMINGS)
+            own.remove(0);
+        saveTimings(timings);
+
+        String report = "Startup took " + millis + " ms " + (mode == Mode.USE ? "with" : "without") + " CDS archive";
+        if (!other.isEmpty()) {
+            long average = (long) other.stream().mapToLong(Long::longValue).average().orElse(0);
+            report += " (" + average + " ms average " + (mode == Mode.USE ? "without" : "with") + ")";
+        }
+        return report;
+    }
+
+    private Timings loadTimings() {
+        try {
+            if (Files.exists(timingsFile)) {
+                Timings timings = GSON.fromJson(Files.readString(timingsFile), Timings.class);
+                if (timings != null)
+                    return timings;
+            }
+        } catch (Exception e) {
+            System.err.println("[SledgeMC] Failed to read startup timings: " + e.getMessage());
+        }
+        return new Timings();
+    }
+
+    private void saveTimings(Timings timings) {
+        try {
+            AtomicFiles.writeString(timingsFile, GSON.toJson(timings));
+        } catch (IOException e) {
+            System.err.println("[SledgeMC] Failed to save startup timings: " + e.getMessage());
+        }
+    }
+
+    private static String computeKey(String planFingerprint) {
+        return FileHashes.sha256("jdk=" + System.getProperty("java.vm.version") + "|"
+                + System.getProperty("java.vm.vendor") + "\nplan=" + planFingerprint);
+    }
+
+    /**
+     * Bumps the archive's last use. The timings file is touched rather than the archive, which the JVM writes
+     * read-only.
+     */
+    private static void markUsed(Path archive) {
+        Path timings = archive.resolveSibling(archive.getFileName() + ".timings.json");
+        try {
+            if (Files.exists(timings))
+                Files.setLastModifiedTime(timings, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // only affects pruning order
+        }
+    }
+
+    /**
+     * Deletes all but the {@code kept} most recently used archives in the directory, never the current one. An
+     * archive's last use is the newest mtime of the archive and its timings file.
+     */
+    static void prune(Path dir, Path current, int kept) throws IOException {
+        Map<String, Long> lastUsed = new HashMap<>();
+        Map<String, List<Path>> files = new HashMap<>();
+        try (Stream<Path> listing = Files.list(dir)) {
+            for (Path file : listing.toList()) {
+                Matcher matcher = ARCHIVE_NAME.matcher(file.getFileName().toString());
+                if (!matcher.matches())
+                    continue;
+                String name = matcher.group(1);
+                lastUsed.merge(name, Files.getLastModifiedTime(file).toMillis(), Math::max);
+                files.computeIfAbsent(name, k -> new ArrayList<>()).add(file);
+            }
+        }
+
+        String currentName = current.getFileName().toString();
+        List<String> others = new ArrayList<>(lastUsed.keySet());
+        others.remove(currentName);
+        others.sort(Comparator.comparing((String name) -> lastUsed.get(name)).reversed());
+
+        int remaining = lastUsed.containsKey(currentName) ? kept - 1 : kept;
+        for (String name : others.subList(Math.min(others.size(), Math.max(remaining, 0)), others.size())) {
+            for (Path file : files.get(name)) {
+                // the JVM writes archives read-only, which Windows refuses to delete
+                file.toFile().setWritable(true);
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
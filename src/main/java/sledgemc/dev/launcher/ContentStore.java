@@ -0,0 +1,185 @@
+/**
+ * @summary Content-addressed file store under ~/.sledgemc/cache with hard-link based deployment into target directories.
+ */
+package sledgemc.dev.launcher;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.UUID;
+
+public class ContentStore {
+
+    public enum DeployResult {
+        SKIPPED, LINKED, COPIED
+    }
+
+    private final Path objectsDir;
+    private final Path refsDir;
+    private final Path verifiedDir;
+    private final Path deployedDir;
+
+    public ContentStore(Path root) {
+        this.objectsDir = root.resolve("objects");
+        this.refsDir = root.resolve("refs");
+        this.verifiedDir = root.resolve("verified");
+        this.deployedDir = root.resolve("deployed");
+    }
+
+    /**
+     * Returns the stored object a name points to, or null if the name is unknown or its object has gone missing or
+     * no longer matches its hash. A corrupt object is discarded so the caller fetches it again. Objects whose size and
+     * mtime still match their verified stamp are not read.
+     */
+    public Path lookup(String name) throws IOException {
+        Path ref = refsDir.resolve(name);
+        if (!Files.exists(ref))
+            return null;
+
+        Path object = objectPath(Files.readString(ref).trim());
+        if (!Files.exists(object))
+            return null;
+        if (!isIntact(object)) {
+            System.err.println("[SledgeMC] Stored object for " + name + " is corrupt, discarding it");
+            delete(object);
+            return null;
+        }
+        return object;
+    }
+
+    /**
+     * Moves a file into the store under its SHA-256 and records it under the given name. If identical content is
+     * already stored, the file is simply discarded. Objects are made read-only, since every deployed hard link
+     * shares them.
+     */
+    public Path ingest(String name, Path file) throws IOException {
+        String hash = FileHashes.sha256(file);
+        Path object = objectPath(hash);
+
+        if (Files.exists(object)) {
+            Files.delete(file);
+        } else {
+            Files.createDirectories(object.getParent());
+            AtomicFiles.move(file, object);
+            object.toFile().setReadOnly();
+            writeStamp(verifiedStamp(object), stamp(object));
+        }
+
+        AtomicFiles.writeString(refsDir.resolve(name), hash);
+        return object;
+    }
+
+    /**
+     * Places a stored object at the target path. Nothing is written when the target already is the object, or is a
+     * copy this store made that has not changed since; otherwise a hard link is created, falling back to a copy across
+     * file systems. The object is checked against its verified stamp first so a damaged object is never spread to
+     * more targets.
+     */
+    public DeployResult deploy(Path object, Path target) throws IOException {
+        if (!isIntact(object)) {
+            delete(object);
+            throw new IOException("Stored object " + object.getFileName() + " is corrupt; fetch it again");
+        }
+        Path deployedStamp = deployedStamp(target);
+        if (Files.exists(target) && hasSameContent(object, target, deployedStamp)) {
+            return DeployResult.SKIPPED;
+        }
+
+        Path dir = target.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        // unique per call: batch jobs for different versions deploy the shared agent and API to the same target
+        Path temp = dir.resolve(target.getFileName() + "." + UUID.randomUUID() + ".sledge-tmp");
+
+        DeployResult result;
+        try {
+            Files.createLink(temp, object);
+            result = DeployResult.LINKED;
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(object, temp, StandardCopyOption.REPLACE_EXISTING);
+            temp.toFile().setWritable(true);
+            result = DeployResult.COPIED;
+        }
+
+        try {
+            AtomicFiles.move(temp, target);
+        } catch (AccessDeniedException e) {
+            // Windows refuses to replace a read-only file, such as a link to an older object
+            target.toFile().setWritable(true);
+            AtomicFiles.move(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        if (result == DeployResult.COPIED) {
+            writeStamp(deployedStamp, object.getFileName() + " " + stamp(target));
+        } else {
+            Files.deleteIfExists(deployedStamp);
+        }
+        return result;
+    }
+
+    /**
+     * Trusts an object whose size and mtime match the stamp written when it was last hashed. Otherwise the object is
+     * hashed again, re-stamped if it still matches its name, and given back the read-only flag if it lost it.
+     */
+    private boolean isIntact(Path object) throws IOException {
+        Path verified = verifiedStamp(object);
+        String stamp = stamp(object);
+        if (stamp.equals(readStamp(verified)))
+            return true;
+
+        if (!object.getFileName().toString().equals(FileHashes.sha256(object)))
+            return false;
+        if (Files.isWritable(object))
+            object.toFile().setReadOnly();
+        writeStamp(verified, stamp);
+        return true;
+    }
+
+    private void delete(Path object) throws IOException {
+        object.toFile().setWritable(true);
+        Files.deleteIfExists(object);
+        Files.deleteIfExists(verifiedStamp(object));
+    }
+
+    /**
+     * A hard link is the object itself. A copy is only trusted while it matches the size and mtime recorded when this
+     * store wrote it; anything else is redeployed rather than hashed.
+     */
+    private boolean hasSameContent(Path object, Path target, Path deployedStamp) throws IOException {
+        if (Files.isSameFile(object, target))
+            return true;
+        if (Files.size(object) != Files.size(target))
+            return false;
+        return (object.getFileName() + " " + stamp(target)).equals(readStamp(deployedStamp));
+    }
+
+    private static String stamp(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+    }
+
+    private static String readStamp(Path stampFile) throws IOException {
+        try {
+            return Files.readString(stampFile);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private static void writeStamp(Path stampFile, String stamp) throws IOException {
+        AtomicFiles.writeString(stampFile, stamp);
+    }
+
+    private Path verifiedStamp(Path object) {
+        return verifiedDir.resolve(object.getFileName().toString());
+    }
+
+    private Path deployedStamp(Path target) {
+        return deployedDir.resolve(FileHashes.sha256(target.toAbsolutePath().normalize().toString()));
+    }
+
+    private Path objectPath(String hash) {
+        return objectsDir.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+}
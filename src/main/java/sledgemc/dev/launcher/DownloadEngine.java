@@ -0,0 +1,310 @@
+/**
+ * @summary Parallel HTTP download engine with resumable partial files, checksum verification, retries and atomic moves into place.
+ */
+package sledgemc.dev.launcher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+public class DownloadEngine implements AutoCloseable {
+
+    public static final int DEFAULT_PARALLELISM = 6;
+    public static final int DEFAULT_ATTEMPTS = 4;
+    private static final long BASE_BACKOFF_MILLIS = 500;
+
+    private volatile HttpClient client;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final int maxAttempts;
+
+    public DownloadEngine() {
+        this(DEFAULT_PARALLELISM, DEFAULT_ATTEMPTS);
+    }
+
+    public DownloadEngine(int parallelism, int maxAttempts) {
+        this.permits = new Semaphore(parallelism);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * A single file to fetch. Either checksum may be null; when both are null the file is only checked for the
+     * length announced by the server.
+     */
+    public record Request(String url, Path target, String sha1, String sha256) {
+
+        public static Request of(String url, Path target) {
+            return new Request(url, target, null, null);
+        }
+
+        public static Request sha1(String url, Path target, String sha1) {
+            return new Request(url, target, sha1, null);
+        }
+
+        public static Request sha256(String url, Path target, String sha256) {
+            return new Request(url, target, null, sha256);
+        }
+    }
+
+    /**
+     * Downloads every request concurrently, bounded by the engine's parallelism. All transfers are attempted even if
+     * some fail; the first failure is rethrown afterwards with the others attached as suppressed exceptions.
+     */
+    public List<Path> downloadAll(List<Request> requests, Consumer<String> logger) throws IOException {
+        List<Future<Path>> futures = new ArrayList<>(requests.size());
+        for (Request request : requests) {
+            futures.add(executor.submit(() -> download(request, logger)));
+        }
+
+        List<Path> results = new ArrayList<>(requests.size());
+        IOException failure = null;
+        for (Future<Path> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                IOException cause = e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while downloading", e);
+            }
+        }
+
+        if (failure != null)
+            throw failure;
+        return results;
+    }
+
+    public Path download(Request request, Consumer<String> logger) throws IOException {
+        Path target = request.target();
+        if (Files.exists(target) && isIntact(request, target)) {
+            return target;
+        }
+
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a download slot", e);
+        }
+
+        try {
+            IOException last = null;
+            for (int attempt = 0; attempt < maxAttempts; attempt++) {
+                if (attempt > 0) {
+                    long delay = BASE_BACKOFF_MILLIS << (attempt - 1);
+                    logger.accept("[SledgeMC] Retrying " + target.getFileName() + " in " + delay + "ms ("
+                            + last.getMessage() + ")");
+                    sleep(delay);
+                }
+
+                try {
+                    fetch(request, part);
+                    if (!isIntact(request, part)) {
+                        Files.deleteIfExists(part);
+                        throw new IOException("Checksum mismatch for " + request.url());
+                    }
+                    AtomicFiles.move(part, target);
+                    return target;
+                } catch (IOException e) {
+                    last = e;
+                }
+            }
+            throw new IOException("Failed to download " + request.url() + " after " + maxAttempts + " attempts", last);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Reads the SHA-1 a Maven repository publishes next to an artifact as {@code <url>.sha1}.
+     */
+    public String publishedSha1(String artifactUrl) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(artifactUrl + ".sha1"))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        HttpResponse<String> response;
+        try {
+            response = client().send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching the checksum of " + artifactUrl, e);
+        }
+
+        if (response.statusCode() != 200)
+            throw new IOException("HTTP " + response.statusCode() + " for " + artifactUrl + ".sha1");
+        String body = response.body().trim();
+        int end = 0;
+        while (end < body.length() && Character.digit(body.charAt(end), 16) >= 0) {
+            end++;
+        }
+        if (end != 40)
+            throw new IOException("Malformed checksum for " + artifactUrl + ": " + body);
+        return body.substring(0, end).toLowerCase();
+    }
+
+    /**
+     * Creates the HTTP client on first use; building it sets up TLS, which is wasted work when every file is cached.
+     */
+    private HttpClient client() {
+        HttpClient current = client;
+        if (current == null) {
+            synchronized (this) {
+                current = client;
+                if (current == null) {
+                    current = HttpClient.newBuilder()
+                            .followRedirects(HttpClient.Redirect.NORMAL)
+                            .connectTimeout(Duration.ofSeconds(15))
+                            .build();
+                    client = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private void fetch(Request request, Path part) throws IOException {
+        long existing = Files.exists(part) ? Files.size(part) : 0;
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.url()))
+                .timeout(Duration.ofMinutes(5))
+                .GET();
+        if (existing > 0) {
+            builder.header("Range", "bytes=" + existing + "-");
+        }
+
+        HttpResponse<InputStream> response;
+        try {
+            response = client().send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while connecting to " + request.url(), e);
+        }
+
+        int status = response.statusCode();
+        try (InputStream in = response.body()) {
+            long[] range = parseContentRange(response.headers().firstValue("Content-Range").orElse(null));
+            if (status == 416 && existing > 0) {
+                // only a partial file of exactly the remote length is complete; anything else is stale
+                if (range[1] == existing)
+                    return;
+                Files.deleteIfExists(part);
+                throw new IOException("Partial file of " + existing + " bytes does not match " + request.url()
+                        + ", restarting");
+            }
+
+            boolean append;
+            if (status == 206 && existing > 0) {
+                if (range[0] != existing) {
+                    Files.deleteIfExists(part);
+                    throw new IOException("Server resumed " + request.url() + " at byte " + range[0] + " instead of "
+                            + existing + ", restarting");
+                }
+                append = true;
+            } else if (status == 200) {
+                append = false;
+            } else {
+                throw new IOException("HTTP " + status + " for " + request.url());
+            }
+
+            long expectedLength = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+            long written = write(in, part, append);
+
+            if (expectedLength >= 0 && written != expectedLength) {
+                throw new IOException("Truncated transfer for " + request.url() + ": got " + written + " of "
+                        + expectedLength + " bytes");
+            }
+        }
+    }
+
+    /**
+     * Parses a Content-Range header of the form {@code bytes first-last/complete}, or the unsatisfied form with an
+     * asterisk for the range, into its first byte and complete length, using -1 for whatever is absent or unknown.
+     */
+    static long[] parseContentRange(String header) {
+        long[] range = { -1, -1 };
+        if (header == null || !header.startsWith("bytes "))
+            return range;
+
+        String spec = header.substring(6).trim();
+        int slash = spec.indexOf('/');
+        if (slash < 0)
+            return range;
+        try {
+            String complete = spec.substring(slash + 1);
+            if (!complete.equals("*"))
+                range[1] = Long.parseLong(complete);
+            int dash = spec.indexOf('-');
+            if (dash > 0 && dash < slash)
+                range[0] = Long.parseLong(spec.substring(0, dash));
+        } catch (NumberFormatException e) {
+            return new long[] { -1, -1 };
+        }
+        return range;
+    }
+
+    private static long write(InputStream in, Path part, boolean append) throws IOException {
+        OpenOption[] options = append
+                ? new OpenOption[] { StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND }
+                : new OpenOption[] { StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING };
+
+        long written = 0;
+        byte[] buffer = new byte[65536];
+        try (FileChannel channel = FileChannel.open(part, options)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                ByteBuffer wrapped = ByteBuffer.wrap(buffer, 0, read);
+                while (wrapped.hasRemaining()) {
+                    channel.write(wrapped);
+                }
+                written += read;
+            }
+        }
+        return written;
+    }
+
+    private static boolean isIntact(Request request, Path file) throws IOException {
+        if (request.sha256() != null) {
+            return request.sha256().equalsIgnoreCase(FileHashes.hash(file, FileHashes.SHA256));
+        }
+        if (request.sha1() != null) {
+            return request.sha1().equalsIgnoreCase(FileHashes.hash(file, FileHashes.SHA1));
+        }
+        return true;
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during retry backoff", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * @summary Small helpers for hashing files and strings into lowercase hex digests.
+ */
+package sledgemc.dev.launcher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public final class FileHashes {
+
+    public static final String SHA1 = "SHA-1";
+    public static final String SHA256 = "SHA-256";
+
+    private FileHashes() {
+    }
+
+    public static String sha256(Path file) throws IOException {
+        return hash(file, SHA256);
+    }
+
+    public static String sha1(Path file) throws IOException {
+        return hash(file, SHA1);
+    }
+
+    public static String hash(Path file, String algorithm) throws IOException {
+        return HexFormat.of().formatHex(digest(file, algorithm));
+    }
+
+    public static byte[] digest(Path file, String algorithm) throws IOException {
+        MessageDigest digest = newDigest(algorithm);
+        byte[] buffer = new byte[65536];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+
+    public static String sha256(String value) {
+        MessageDigest digest = newDigest(SHA256);
+        return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Missing digest algorithm: " + algorithm, e);
+        }
+    }
+}
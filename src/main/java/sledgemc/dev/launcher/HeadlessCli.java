@@ -0,0 +1,327 @@
+/**
+ * @summary Command line front end that installs, exports, launches and prefetches without starting JavaFX.
+ */
+package sledgemc.dev.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+public class HeadlessCli {
+
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILED = 1;
+    public static final int EXIT_USAGE = 2;
+
+    private static final Gson GSON = new Gson();
+    private static final Set<String> COMMANDS = Set.of("install", "export", "launch", "prefetch", "mods", "batch", "help");
+    private static final Set<String> FLAGS = Set.of("json", "wait", "preview", "assets", "skip-install", "skip-export");
+
+    private final PrintStream out;
+    private final PrintStream err;
+    private final Map<String, String> options = new HashMap<>();
+    private String command;
+    private boolean json;
+
+    HeadlessCli(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Whether the arguments ask for a headless command rather than the GUI. JavaFX's own arguments all start with a
+     * dash, so any leading word is treated as a command and unknown ones are reported as usage errors.
+     */
+    public static boolean isCommand(String[] args) {
+        return args.length > 0 && !args[0].startsWith("-");
+    }
+
+    /**
+     * Runs the command and returns the process exit code: {@link #EXIT_OK}, {@link #EXIT_FAILED} when the command
+     * ran and failed, or {@link #EXIT_USAGE} for unknown commands and bad options.
+     */
+    public static int run(String[] args) {
+        PrintStream stdout = System.out;
+        HeadlessCli cli = new HeadlessCli(stdout, System.err);
+        try {
+            cli.parse(args);
+        } catch (IllegalArgumentException e) {
+            cli.err.println("[SledgeMC] " + e.getMessage());
+            cli.printUsage(cli.err);
+            return EXIT_USAGE;
+        }
+
+        // installers and downloaders log to System.out; keep stdout for the JSON result only
+        if (cli.json)
+            System.setOut(System.err);
+        try {
+            return cli.execute();
+        } finally {
+            System.setOut(stdout);
+        }
+    }
+
+    void parse(String[] args) {
+        if (args.length == 0 || !COMMANDS.contains(args[0]))
+            throw new IllegalArgumentException("Unknown command: " + (args.length > 0 ? args[0] : ""));
+        command = args[0];
+
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--") || arg.length() == 2)
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+
+            String name = arg.substring(2);
+            int eq = name.indexOf('=');
+            if (eq >= 0) {
+                options.put(name.substring(0, eq), name.substring(eq + 1));
+            } else if (FLAGS.contains(name)) {
+                options.put(name, "true");
+            } else if (i + 1 < args.length) {
+                options.put(name, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for --" + name);
+            }
+        }
+        json = options.containsKey("json");
+    }
+
+    private int execute() {
+        if (command.equals("help")) {
+            printUsage(out);
+            return EXIT_OK;
+        }
+
+        LaunchConfig config = LaunchConfig.load();
+        String version = option("version", config.getLastVersion());
+        String minecraftPath = option("minecraft", config.getMinecraftPath());
+
+        JsonObject result = new JsonObject();
+        result.addProperty("command", command);
+        result.addProperty("version", version);
+        long start = System.nanoTime();
+
+        int code;
+        try {
+            code = switch (command) {
+                case "install" -> install(minecraftPath, version, result);
+                case "export" -> export(version, result);
+                case "launch" -> launch(config, minecraftPath, version, result);
+                case "prefetch" -> prefetch(config, minecraftPath, version, result);
+                case "mods" -> mods(option("mods", config.getModsPath()), result);
+                case "batch" -> batch(minecraftPath, result);
+                default -> throw new IllegalArgumentException("Unknown command: " + command);
+            };
+        } catch (IllegalArgumentException e) {
+            result.addProperty("error", e.getMessage());
+            code = EXIT_USAGE;
+        } catch (Exception e) {
+            result.addProperty("error", e.getMessage() != null ? e.getMessage() : e.toString());
+            code = EXIT_FAILED;
+        }
+
+        result.addProperty("status", code == EXIT_OK ? "ok" : "error");
+        result.addProperty("exitCode", code);
+        result.addProperty("elapsedMs", (System.nanoTime() - start) / 1_000_000);
+        report(result);
+        return code;
+    }
+
+    private int install(String minecraftPath, String version, JsonObject result) throws Exception {
+        ProfileInstaller.Report report = new ProfileInstaller(minecraftPath, version).install();
+        result.addProperty("profile", report.profile());
+        result.addProperty("minecraftPath", minecraftPath);
+        result.addProperty("changed", report.changedCount());
+        JsonArray changes = new JsonArray();
+        for (ProfileInstaller.Change change : report.changes()) {
+            JsonObject entry = new JsonObject();
+            entry.addProperty("target", change.target().toString());
+            entry.addProperty("action", change.action().name().toLowerCase(Locale.ROOT));
+            if (change.detail() != null)
+                entry.addProperty("detail", change.detail());
+            changes.add(entry);
+        }
+        result.add("changes", changes);
+        if (!json)
+            System.out.println(report.summary());
+        return EXIT_OK;
+    }
+
+    private int export(String version, JsonObject result) throws Exception {
+        Path output = Paths.get(option("output", "SledgeMC-" + version + ".zip")).toAbsolutePath();
+        new PrismPackager(version).createPackage(output);
+        result.addProperty("output", output.toString());
+        return EXIT_OK;
+    }
+
+    private int prefetch(LaunchConfig config, String minecraftPath, String version, JsonObject result)
+            throws Exception {
+        AssetDownloader.Artifacts artifacts = AssetDownloader.ensureAll(version, System.out::println);
+        result.addProperty("loader", artifacts.loader().toString());
+        result.addProperty("agent", artifacts.agent().toString());
+        result.addProperty("api", artifacts.api().toString());
+
+        if (options.containsKey("assets")) {
+            MinecraftLauncher launcher = new MinecraftLauncher(minecraftPath, option("mods", config.getModsPath()),
+                    version);
+            launcher.setLogger(System.out::println);
+            AssetSync.Result assets = launcher.syncAssets(Paths.get(minecraftPath));
+            if (assets == null)
+                throw new IOException("Could not sync assets for " + version);
+            result.add("assets", GSON.toJsonTree(assets));
+        }
+        return EXIT_OK;
+    }
+
+    private int mods(String modsPath, JsonObject result) throws Exception {
+        ModIndexer.Result index = new ModIndexer(Paths.get(modsPath)).index();
+        result.addProperty("modsPath", modsPath);
+        result.addProperty("scanned", index.scanned());
+        result.addProperty("unchanged", index.reused());
+        result.add("mods", GSON.toJsonTree(index.mods()));
+        if (!json) {
+            for (ModIndexer.ModInfo mod : index.mods()) {
+                System.out.println(mod.id() + " " + (mod.version() != null ? mod.version() : "?") + " "
+                        + mod.entrypoints());
+            }
+        }
+        return EXIT_OK;
+    }
+
+    private int batch(String minecraftPath, JsonObject result) throws Exception {
+        List<String> versions = options.containsKey("versions")
+                ? Arrays.stream(options.get("versions").split(",")).map(String::trim).filter(v -> !v.isEmpty()).toList()
+                : LaunchConfig.SUPPORTED_VERSIONS;
+        Path exportDir = options.containsKey("skip-export") ? null
+                : Paths.get(option("output", ".")).toAbsolutePath();
+        List<BatchOrchestrator.Job> jobs = BatchOrchestrator.jobsFor(versions, !options.containsKey("skip-install"),
+                exportDir);
+        if (jobs.isEmpty())
+            throw new IllegalArgumentException("Nothing to do: no versions, or both install and export skipped");
+
+        int parallelism = BatchOrchestrator.DEFAULT_PARALLELISM;
+        if (options.containsKey("parallelism")) {
+            try {
+                parallelism = Integer.parseInt(options.get("parallelism"));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid --parallelism: " + options.get("parallelism"));
+            }
+        }
+        if (exportDir != null)
+            Files.createDirectories(exportDir);
+
+        List<BatchOrchestrator.Status> statuses = new BatchOrchestrator(minecraftPath, parallelism)
+                .run(jobs, status -> {
+                    if (status.state() != BatchOrchestrator.State.QUEUED) {
+                        System.out.println("[SledgeMC] " + status.job().describe() + ": "
+                                + status.state().name().toLowerCase()
+                                + (status.message() != null ? " - " + status.message() : ""));
+                    }
+                }).get();
+
+        JsonArray jobResults = new JsonArray();
+        boolean failed = false;
+        for (BatchOrchestrator.Status status : statuses) {
+            JsonObject entry = new JsonObject();
+            entry.addProperty("kind", status.job().kind().name().toLowerCase(Locale.ROOT));
+            entry.addProperty("version", status.job().version());
+            if (status.job().output() != null)
+                entry.addProperty("output", status.job().output().toString());
+            entry.addProperty("state", status.state().name().toLowerCase(Locale.ROOT));
+            entry.addProperty("message", status.message());
+            entry.addProperty("elapsedMs", status.elapsedMs());
+            jobResults.add(entry);
+            failed |= status.state() == BatchOrchestrator.State.FAILED;
+        }
+        result.add("jobs", jobResults);
+        if (failed)
+            result.addProperty("error", "one or more batch jobs failed");
+        return failed ? EXIT_FAILED : EXIT_OK;
+    }
+
+    private int launch(LaunchConfig config, String minecraftPath, String version, JsonObject result)
+            throws Exception {
+        JvmTuner.Preset preset = config.getJvmPreset();
+        String presetName = options.get("preset");
+        if (presetName != null) {
+            try {
+                preset = JvmTuner.Preset.valueOf(presetName.toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown preset: " + presetName + ", expected one of "
+                        + Arrays.toString(JvmTuner.Preset.values()));
+            }
+        }
+
+        int memory = config.getAllocatedMemory();
+        String memoryOption = options.get("memory");
+        if (memoryOption != null) {
+            try {
+                memory = Integer.parseInt(memoryOption);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid --memory: " + memoryOption);
+            }
+        }
+
+        MinecraftLauncher launcher = new MinecraftLauncher(minecraftPath, option("mods", config.getModsPath()),
+                version, preset, memory);
+        launcher.setLogger(System.out::println);
+        result.addProperty("preset", preset.name());
+
+        if (options.containsKey("preview")) {
+            result.addProperty("jvmTuning", launcher.previewJvmArguments());
+            if (!json)
+                System.out.println(launcher.previewJvmArguments());
+            return EXIT_OK;
+        }
+
+        Process process = launcher.launch();
+        result.addProperty("pid", process.pid());
+        if (options.containsKey("wait")) {
+            int gameExit = process.waitFor();
+            result.addProperty("gameExitCode", gameExit);
+            return gameExit == 0 ? EXIT_OK : EXIT_FAILED;
+        }
+        return EXIT_OK;
+    }
+
+    private void report(JsonObject result) {
+        if (json) {
+            out.println(GSON.toJson(result));
+            out.flush();
+        } else if (result.has("error")) {
+            err.println("[SledgeMC] " + command + " failed: " + result.get("error").getAsString());
+        } else {
+            out.println("[SledgeMC] " + command + " finished in " + result.get("elapsedMs").getAsLong() + "ms");
+        }
+    }
+
+    private String option(String name, String fallback) {
+        String value = options.get(name);
+        return value != null && !value.isEmpty() ? value : fallback;
+    }
+
+    void printUsage(PrintStream stream) {
+        stream.println("Usage: sledgemc <command> [options]");
+        stream.println("Commands:");
+        stream.println("  install   [--version V] [--minecraft DIR]      add the SledgeMC profile to the official launcher");
+        stream.println("  export    [--version V] [--output FILE]        write a Prism Launcher instance zip");
+        stream.println("  launch    [--version V] [--minecraft DIR] [--mods DIR] [--memory MB] [--preset NAME]");
+        stream.println("            [--preview] [--wait]                 start the game");
+        stream.println("  prefetch  [--version V] [--minecraft DIR] [--assets]");
+        stream.println("                                                 download the loader, agent and API, and verify assets");
+        stream.println("  mods      [--mods DIR]                         list installed mods and their entrypoints");
+        stream.println("  batch     [--versions A,B] [--output DIR] [--skip-install] [--skip-export] [--parallelism N]");
+        stream.println("                                                 install and export several versions concurrently");
+        stream.println("  help                                           show this message");
+        stream.println("Options:");
+        stream.println("  --json    print a single JSON result object on stdout; logs go to stderr");
+        stream.println("Defaults come from the launcher config. Exit codes: 0 ok, 1 failed, 2 usage error.");
+    }
+}
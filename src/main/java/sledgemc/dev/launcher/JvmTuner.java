@@ -0,0 +1,172 @@
+/**
+ * @summary Derives garbage collector and heap arguments for the game JVM from a named preset and the host's RAM, cores and mod count.
+ */
+package sledgemc.dev.launcher;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class JvmTuner {
+
+    public enum Preset {
+        G1_LOW_PAUSE("G1 (low pause)"),
+        ZGC_GENERATIONAL("Generational ZGC"),
+        PARALLEL_THROUGHPUT("Parallel (throughput)");
+
+        private final String displayName;
+
+        Preset(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private static final long MB = 1024L * 1024;
+    private static final int MIN_HEAP_MB = 1024;
+    private static final int BASE_HEAP_MB = 2048;
+    private static final int HEAP_PER_MOD_MB = 48;
+    private static final int MAX_AUTO_HEAP_MB = 16384;
+    private static final int OS_RESERVE_MB = 2048;
+    private static final int PRETOUCH_MIN_RAM_MB = 16384;
+
+    private final Preset preset;
+    private final int requestedHeapMb;
+    private final long physicalMemoryMb;
+    private final int cores;
+    private final int modCount;
+    private final boolean transparentHugePages;
+
+    public JvmTuner(Preset preset, int requestedHeapMb, long physicalMemoryMb, int cores, int modCount,
+            boolean transparentHugePages) {
+        this.preset = preset != null ? preset : Preset.G1_LOW_PAUSE;
+        this.requestedHeapMb = requestedHeapMb;
+        this.physicalMemoryMb = physicalMemoryMb;
+        this.cores = Math.max(1, cores);
+        this.modCount = Math.max(0, modCount);
+        this.transparentHugePages = transparentHugePages;
+    }
+
+    /**
+     * Creates a tuner for this machine. A requested heap of 0 or less means the heap is sized automatically.
+     */
+    public static JvmTuner forHost(Preset preset, int requestedHeapMb, Path modsDir) {
+        return new JvmTuner(preset, requestedHeapMb, detectPhysicalMemoryMb(), Runtime.getRuntime().availableProcessors(),
+                countMods(modsDir), detectTransparentHugePages());
+    }
+
+    /**
+     * Heap size in MB: the requested size if set, otherwise a base plus a share per mod, always leaving room for the
+     * operating system and never more than half of the physical memory when sized automatically.
+     */
+    public int getHeapMb() {
+        int ceiling = (int) Math.max(MIN_HEAP_MB, physicalMemoryMb - OS_RESERVE_MB);
+        if (requestedHeapMb > 0) {
+            return Math.min(requestedHeapMb, ceiling);
+        }
+
+        int wanted = BASE_HEAP_MB + modCount * HEAP_PER_MOD_MB;
+        int autoCeiling = (int) Math.min(MAX_AUTO_HEAP_MB, Math.max(MIN_HEAP_MB, physicalMemoryMb / 2));
+        return roundTo256(Math.max(MIN_HEAP_MB, Math.min(wanted, Math.min(autoCeiling, ceiling))));
+    }
+
+    public List<String> getArguments() {
+        int heap = getHeapMb();
+        boolean bigBox = physicalMemoryMb >= PRETOUCH_MIN_RAM_MB;
+        List<String> args = new ArrayList<>();
+
+        args.add("-Xmx" + heap + "M");
+        if (preset == Preset.G1_LOW_PAUSE && !bigBox) {
+            args.add("-Xms" + Math.min(heap, Math.max(MIN_HEAP_MB, heap / 2)) + "M");
+        } else {
+            args.add("-Xms" + heap + "M");
+        }
+        if (bigBox) {
+            args.add("-XX:+AlwaysPreTouch");
+        }
+        if (transparentHugePages) {
+            args.add("-XX:+UseTransparentHugePages");
+        }
+
+        switch (preset) {
+            case G1_LOW_PAUSE -> {
+                args.add("-XX:+UseG1GC");
+                args.add("-XX:+UnlockExperimentalVMOptions");
+                args.add("-XX:MaxGCPauseMillis=50");
+                args.add("-XX:G1NewSizePercent=" + (heap >= 8192 ? 40 : 30));
+                args.add("-XX:G1MaxNewSizePercent=" + (heap >= 8192 ? 50 : 40));
+                args.add("-XX:G1HeapRegionSize=" + (heap >= 8192 ? 16 : 8) + "M");
+                args.add("-XX:G1ReservePercent=20");
+                args.add("-XX:ConcGCThreads=" + Math.max(1, cores / 4));
+                args.add("-XX:+UseStringDeduplication");
+            }
+            case ZGC_GENERATIONAL -> {
+                args.add("-XX:+UseZGC");
+                args.add("-XX:+ZGenerational");
+                args.add("-XX:+UseStringDeduplication");
+            }
+            case PARALLEL_THROUGHPUT -> {
+                args.add("-XX:+UseParallelGC");
+                args.add("-XX:ParallelGCThreads=" + Math.max(1, cores - 1));
+            }
+        }
+
+        args.add("-XX:MetaspaceSize=256M");
+        args.add("-XX:+ParallelRefProcEnabled");
+        return args;
+    }
+
+    /**
+     * A human-readable summary of the inputs and the resulting arguments.
+     */
+    public String preview() {
+        return preset.getDisplayName() + " | RAM " + physicalMemoryMb + " MB, " + cores + " cores, " + modCount
+                + " mods | " + String.join(" ", getArguments());
+    }
+
+    public Preset getPreset() {
+        return preset;
+    }
+
+    private static int roundTo256(int mb) {
+        return mb / 256 * 256;
+    }
+
+    static long detectPhysicalMemoryMb() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return os.getTotalMemorySize() / MB;
+        }
+        return 8192;
+    }
+
+    static boolean detectTransparentHugePages() {
+        Path setting = Paths.get("/sys/kernel/mm/transparent_hugepage/enabled");
+        try {
+            if (Files.isReadable(setting)) {
+                String value = Files.readString(setting);
+                return value.contains("[always]") || value.contains("[madvise]");
+            }
+        } catch (IOException e) {
+            // not available on this platform
+        }
+        return false;
+    }
+
+    static int countMods(Path modsDir) {
+        if (modsDir == null || !Files.isDirectory(modsDir))
+            return 0;
+        try (Stream<Path> files = Files.list(modsDir)) {
+            return (int) files.filter(p -> p.getFileName().toString().endsWith(".jar")).count();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
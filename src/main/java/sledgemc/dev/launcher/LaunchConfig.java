@@ -9,16 +9,27 @@ import com.google.gson.GsonBuilder;
 
 import java.io.*;
 import java.nio.file.*;
+import java.util.List;
 
 public class LaunchConfig {
 
+    public static final int DEFAULT_LOG_LINE_LIMIT = 5000;
+    public static final List<String> SUPPORTED_VERSIONS = List.of("1.21.11", "1.21.8", "1.21.4");
+
+    /**
+     * Written with every save. Version 1 introduced the JVM tuner, which made a heap size of 0 mean automatic.
+     */
+    private static final int CONFIG_VERSION = 1;
     private static final Path CONFIG_FILE = getConfigPath();
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 
+    private int configVersion;
     private String minecraftPath;
     private String modsPath;
     private String lastVersion = "1.21.11";
-    private int allocatedMemory = 4096;
+    private int allocatedMemory = 0;
+    private JvmTuner.Preset jvmPreset = JvmTuner.Preset.G1_LOW_PAUSE;
+    private int logLineLimit = DEFAULT_LOG_LINE_LIMIT;
 
     public LaunchConfig() {
         this.minecraftPath = getDefaultMinecraftPath();
@@ -29,7 +40,9 @@ public class LaunchConfig {
         try {
             if (Files.exists(CONFIG_FILE)) {
                 String json = Files.readString(CONFIG_FILE);
-                return GSON.fromJson(json, LaunchConfig.class);
+                LaunchConfig config = GSON.fromJson(json, LaunchConfig.class);
+                config.migrate();
+                return config;
             }
         } catch (Exception e) {
             System.err.println("Failed to load config: " + e.getMessage());
@@ -37,7 +50,15 @@ public class LaunchConfig {
         return new LaunchConfig();
     }
 
+    private void migrate() {
+        if (configVersion < 1 && allocatedMemory == 4096) {
+            allocatedMemory = 0;
+        }
+        configVersion = CONFIG_VERSION;
+    }
+
     public void save() {
+        configVersion = CONFIG_VERSION;
         try {
             Files.createDirectories(CONFIG_FILE.getParent());
             Files.writeString(CONFIG_FILE, GSON.toJson(this));
@@ -96,6 +117,10 @@ public class LaunchConfig {
         this.lastVersion = version;
     }
 
+    /**
+     * Heap size in MB for the game, or 0 to size it automatically. Configs written before the JVM tuner existed
+     * stored the old 4096 default, which is migrated to automatic on load.
+     */
     public int getAllocatedMemory() {
         return allocatedMemory;
     }
@@ -103,4 +128,23 @@ public class LaunchConfig {
     public void setAllocatedMemory(int mb) {
         this.allocatedMemory = mb;
     }
+
+    public JvmTuner.Preset getJvmPreset() {
+        return jvmPreset != null ? jvmPreset : JvmTuner.Preset.G1_LOW_PAUSE;
+    }
+
+    public void setJvmPreset(JvmTuner.Preset preset) {
+        this.jvmPreset = preset;
+    }
+
+    /**
+     * Maximum number of lines kept in the activity log; older lines are discarded.
+     */
+    public int getLogLineLimit() {
+        return logLineLimit > 0 ? logLineLimit : DEFAULT_LOG_LINE_LIMIT;
+    }
+
+    public void setLogLineLimit(int lines) {
+        this.logLineLimit = lines;
+    }
 }
@@ -0,0 +1,165 @@
+/**
+ * @summary A fully computed launch command (classpath, JVM args, main class and game args) together with the fingerprint of its inputs.
+ */
+package sledgemc.dev.launcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+public class LaunchPlan {
+
+    public static final int FORMAT_VERSION = 4;
+
+    private int formatVersion = FORMAT_VERSION;
+    private String fingerprint;
+    private List<String> versionFiles = new ArrayList<>();
+    private List<String> missingLibraries = new ArrayList<>();
+    private Map<String, String> settings = new TreeMap<>();
+    private String classpath;
+    private List<String> jvmArgs = new ArrayList<>();
+    private String mainClass;
+    private List<String> gameArgs = new ArrayList<>();
+    private LibraryResolver.AssetIndex assetIndex;
+    private String nativesDir;
+
+    private LaunchPlan() {
+    }
+
+    public LaunchPlan(List<Path> versionFiles, List<Path> missingLibraries, Map<String, String> settings,
+            String classpath, List<String> jvmArgs, String mainClass, List<String> gameArgs,
+            LibraryResolver.AssetIndex assetIndex, Path nativesDir) {
+        for (Path file : versionFiles) {
+            this.versionFiles.add(file.toAbsolutePath().toString());
+        }
+        for (Path library : missingLibraries) {
+            this.missingLibraries.add(library.toAbsolutePath().toString());
+        }
+        this.settings.putAll(settings);
+        this.classpath = classpath;
+        this.jvmArgs.addAll(jvmArgs);
+        this.mainClass = mainClass;
+        this.gameArgs.addAll(gameArgs);
+        this.assetIndex = assetIndex;
+        this.nativesDir = nativesDir != null ? nativesDir.toAbsolutePath().toString() : null;
+    }
+
+    /**
+     * Checks that the plan was produced from the same settings and that none of the version JSONs or classpath jars
+     * have changed since. Version JSONs are hashed, jars are only compared by size and modification time. Libraries
+     * that were missing when the plan was built invalidate it once they appear, so they get onto the classpath, and
+     * a natives directory that was deleted since invalidates it so the natives are extracted again.
+     */
+    public boolean isValidFor(Map<String, String> currentSettings) {
+        if (formatVersion != FORMAT_VERSION || fingerprint == null)
+            return false;
+        if (!settings.equals(new TreeMap<>(currentSettings)))
+            return false;
+
+        try {
+            return fingerprint.equals(computeFingerprint());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Plans built from a libraries directory scan have no version JSON to fingerprint, so they are never reused.
+     * Neither are plans whose natives could not be extracted, so the next launch tries again.
+     */
+    public boolean isCacheable() {
+        return !versionFiles.isEmpty() && nativesDir != null;
+    }
+
+    public void seal() throws IOException {
+        this.fingerprint = computeFingerprint();
+    }
+
+    private String computeFingerprint() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("format=").append(formatVersion).append('\n');
+
+        for (Map.Entry<String, String> entry : settings.entrySet()) {
+            sb.append("setting:").append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+        }
+
+        for (String file : versionFiles) {
+            sb.append("json:").append(file).append('=').append(FileHashes.sha256(Paths.get(file))).append('\n');
+        }
+
+        for (String library : missingLibraries) {
+            sb.append("missing:").append(library).append('=').append(Files.exists(Paths.get(library))).append('\n');
+        }
+
+        if (nativesDir != null) {
+            sb.append("natives:").append(nativesDir).append('=').append(Files.isDirectory(Paths.get(nativesDir)))
+                    .append('\n');
+        }
+
+        for (String entry : classpath.split(File.pathSeparator)) {
+            BasicFileAttributes attrs = Files.readAttributes(Paths.get(entry), BasicFileAttributes.class);
+            sb.append("jar:").append(entry).append('=').append(attrs.size()).append(':')
+                    .append(attrs.lastModifiedTime().toMillis()).append('\n');
+        }
+
+        return FileHashes.sha256(sb.toString());
+    }
+
+    public List<String> toCommand(String javaPath) {
+        return toCommand(javaPath, List.of());
+    }
+
+    /**
+     * Builds the command with additional JVM arguments that depend on state outside the plan, placed after the
+     * plan's own arguments.
+     */
+    public List<String> toCommand(String javaPath, List<String> extraJvmArgs) {
+        List<String> command = new ArrayList<>();
+        command.add(javaPath);
+        command.addAll(jvmArgs);
+        command.addAll(extraJvmArgs);
+        command.add("-cp");
+        command.add(classpath);
+        command.add(mainClass);
+        command.addAll(gameArgs);
+        return command;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public String getClasspath() {
+        return classpath;
+    }
+
+    public List<String> getJvmArgs() {
+        return Collections.unmodifiableList(jvmArgs);
+    }
+
+    public String getMainClass() {
+        return mainClass;
+    }
+
+    public List<String> getGameArgs() {
+        return Collections.unmodifiableList(gameArgs);
+    }
+
+    /**
+     * Returns the asset index the version declares, or null when it has no version JSON or declares none.
+     */
+    public LibraryResolver.AssetIndex getAssetIndex() {
+        return assetIndex;
+    }
+
+    /**
+     * Returns the directory holding the version's extracted natives, or null if they could not be extracted.
+     */
+    public Path getNativesDir() {
+        return nativesDir != null ? Paths.get(nativesDir) : null;
+    }
+}
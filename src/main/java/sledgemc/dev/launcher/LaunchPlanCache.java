@@ -0,0 +1,55 @@
+/**
+ * @summary Persists computed launch plans under ~/.sledgemc/plans so warm launches can skip classpath and argument computation.
+ */
+package sledgemc.dev.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class LaunchPlanCache {
+
+    private static final Path PLANS_DIR = Paths.get(System.getProperty("user.home"), ".sledgemc", "plans");
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final Path planFile;
+
+    public LaunchPlanCache(String minecraftPath, String version) {
+        String key = FileHashes.sha256(Paths.get(minecraftPath).toAbsolutePath() + "|" + version).substring(0, 16);
+        this.planFile = PLANS_DIR.resolve(version + "-" + key + ".json");
+    }
+
+    public LaunchPlan load() {
+        try {
+            if (Files.exists(planFile)) {
+                return GSON.fromJson(Files.readString(planFile), LaunchPlan.class);
+            }
+        } catch (Exception e) {
+            System.err.println("[SledgeMC] Failed to read launch plan: " + e.getMessage());
+        }
+        return null;
+    }
+
+    public void save(LaunchPlan plan) {
+        try {
+            AtomicFiles.writeString(planFile, GSON.toJson(plan));
+        } catch (Exception e) {
+            System.err.println("[SledgeMC] Failed to save launch plan: " + e.getMessage());
+        }
+    }
+
+    public void invalidate() {
+        try {
+            Files.deleteIfExists(planFile);
+        } catch (Exception e) {
+            System.err.println("[SledgeMC] Failed to delete launch plan: " + e.getMessage());
+        }
+    }
+
+    public Path getPlanFile() {
+        return planFile;
+    }
+}
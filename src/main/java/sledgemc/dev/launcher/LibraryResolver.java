@@ -0,0 +1,304 @@
+/**
+ * @summary Resolves the libraries a Minecraft version needs from its version JSON, following inheritsFrom chains and OS rules.
+ */
+package sledgemc.dev.launcher;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Pattern;
+
+public class LibraryResolver {
+
+    private static final int MAX_INHERITANCE_DEPTH = 16;
+
+    /**
+     * The asset index a version uses. The checksum, size and url are null for old version JSONs that only name the
+     * index through the {@code assets} field.
+     */
+    public record AssetIndex(String id, String sha1, long size, String url) {
+    }
+
+    /**
+     * A jar of native libraries selected through a library's {@code natives} classifier for this OS, with the entry
+     * prefixes its {@code extract.exclude} list leaves out. The checksum is null when the JSON does not declare one.
+     */
+    public record NativeLibrary(Path jar, String sha1, List<String> exclude) {
+    }
+
+    private final Path versionsDir;
+    private final Path librariesDir;
+    private final List<JsonObject> chain = new ArrayList<>();
+    private final List<Path> versionFiles = new ArrayList<>();
+
+    public LibraryResolver(Path mcDir, String version) throws IOException {
+        this.versionsDir = mcDir.resolve("versions");
+        this.librariesDir = mcDir.resolve("libraries");
+        load(version);
+    }
+
+    public static boolean hasVersionJson(Path mcDir, String version) {
+        return Files.exists(mcDir.resolve("versions").resolve(version).resolve(version + ".json"));
+    }
+
+    private void load(String version) throws IOException {
+        Set<String> seen = new HashSet<>();
+        String current = version;
+
+        while (current != null) {
+            if (!seen.add(current) || seen.size() > MAX_INHERITANCE_DEPTH) {
+                throw new IOException("Circular or too deep inheritsFrom chain at: " + current);
+            }
+
+            Path jsonFile = versionsDir.resolve(current).resolve(current + ".json");
+            if (!Files.exists(jsonFile)) {
+                throw new FileNotFoundException("Version JSON not found: " + jsonFile);
+            }
+
+            JsonObject json = JsonParser.parseString(Files.readString(jsonFile)).getAsJsonObject();
+            chain.add(json);
+            versionFiles.add(jsonFile);
+
+            current = json.has("inheritsFrom") ? json.get("inheritsFrom").getAsString() : null;
+        }
+    }
+
+    /**
+     * Returns the library jars of the whole inheritance chain in classpath order: the child's libraries come
+     * first, and a library already declared by a child overrides the same artifact declared by its parent.
+     */
+    public List<Path> resolveLibraries() {
+        Map<String, Path> resolved = new LinkedHashMap<>();
+
+        for (JsonObject json : chain) {
+            JsonArray libraries = json.getAsJsonArray("libraries");
+            if (libraries == null)
+                continue;
+
+            for (JsonElement element : libraries) {
+                JsonObject library = element.getAsJsonObject();
+                if (!isAllowed(library.getAsJsonArray("rules")))
+                    continue;
+
+                Path path = resolveArtifactPath(library);
+                if (path == null)
+                    continue;
+
+                resolved.putIfAbsent(artifactKey(library), path);
+            }
+        }
+
+        return new ArrayList<>(resolved.values());
+    }
+
+    /**
+     * Returns the native jars of the whole inheritance chain for this OS, with a child's declaration overriding the
+     * same artifact declared by its parent.
+     */
+    public List<NativeLibrary> resolveNatives() {
+        Map<String, NativeLibrary> resolved = new LinkedHashMap<>();
+        String arch = System.getProperty("os.arch").contains("64") ? "64" : "32";
+
+        for (JsonObject json : chain) {
+            JsonArray libraries = json.getAsJsonArray("libraries");
+            if (libraries == null)
+                continue;
+
+            for (JsonElement element : libraries) {
+                JsonObject library = element.getAsJsonObject();
+                JsonObject natives = library.getAsJsonObject("natives");
+                if (natives == null || !natives.has(getOsName()) || !library.has("name")
+                        || !isAllowed(library.getAsJsonArray("rules")))
+                    continue;
+
+                String classifier = natives.get(getOsName()).getAsString().replace("${arch}", arch);
+                Path jar = null;
+                String sha1 = null;
+                JsonObject downloads = library.getAsJsonObject("downloads");
+                JsonObject classifiers = downloads != null ? downloads.getAsJsonObject("classifiers") : null;
+                if (classifiers != null && classifiers.has(classifier)) {
+                    JsonObject artifact = classifiers.getAsJsonObject(classifier);
+                    if (artifact.has("path"))
+                        jar = librariesDir.resolve(artifact.get("path").getAsString());
+                    if (artifact.has("sha1"))
+                        sha1 = artifact.get("sha1").getAsString();
+                }
+                if (jar == null) {
+                    String[] parts = library.get("name").getAsString().split("@")[0].split(":");
+                    if (parts.length < 3)
+                        continue;
+                    jar = librariesDir.resolve(mavenPath(parts[0] + ":" + parts[1] + ":" + parts[2] + ":" + classifier));
+                }
+
+                List<String> exclude = new ArrayList<>();
+                JsonObject extract = library.getAsJsonObject("extract");
+                if (extract != null && extract.has("exclude")) {
+                    for (JsonElement prefix : extract.getAsJsonArray("exclude")) {
+                        exclude.add(prefix.getAsString());
+                    }
+                }
+
+                resolved.putIfAbsent(artifactKey(library) + ":" + classifier,
+                        new NativeLibrary(jar, sha1, List.copyOf(exclude)));
+            }
+        }
+
+        return new ArrayList<>(resolved.values());
+    }
+
+    /**
+     * Returns the version JSON files that were read, starting with the requested version and ending with the root
+     * of its inheritance chain.
+     */
+    public List<Path> getVersionFiles() {
+        return Collections.unmodifiableList(versionFiles);
+    }
+
+    /**
+     * Returns the asset index of the nearest version in the inheritance chain that declares one, or null if none do.
+     */
+    public AssetIndex getAssetIndex() {
+        for (JsonObject json : chain) {
+            JsonObject index = json.getAsJsonObject("assetIndex");
+            if (index != null && index.has("id")) {
+                return new AssetIndex(index.get("id").getAsString(),
+                        index.has("sha1") ? index.get("sha1").getAsString() : null,
+                        index.has("size") ? index.get("size").getAsLong() : -1,
+                        index.has("url") ? index.get("url").getAsString() : null);
+            }
+            if (json.has("assets")) {
+                return new AssetIndex(json.get("assets").getAsString(), null, -1, null);
+            }
+        }
+        return null;
+    }
+
+    private Path resolveArtifactPath(JsonObject library) {
+        JsonObject downloads = library.getAsJsonObject("downloads");
+        if (downloads != null && downloads.has("artifact")) {
+            JsonObject artifact = downloads.getAsJsonObject("artifact");
+            if (artifact.has("path")) {
+                return librariesDir.resolve(artifact.get("path").getAsString());
+            }
+        }
+
+        if (library.has("natives") && (downloads == null || !downloads.has("artifact"))) {
+            return null;
+        }
+
+        if (!library.has("name"))
+            return null;
+
+        return librariesDir.resolve(mavenPath(library.get("name").getAsString()));
+    }
+
+    static String mavenPath(String name) {
+        String extension = "jar";
+        int at = name.indexOf('@');
+        if (at != -1) {
+            extension = name.substring(at + 1);
+            name = name.substring(0, at);
+        }
+
+        String[] parts = name.split(":");
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("Invalid library name: " + name);
+        }
+
+        String group = parts[0].replace('.', '/');
+        String artifact = parts[1];
+        String version = parts[2];
+        String classifier = parts.length > 3 ? "-" + parts[3] : "";
+
+        return group + "/" + artifact + "/" + version + "/" + artifact + "-" + version + classifier + "." + extension;
+    }
+
+    private static String artifactKey(JsonObject library) {
+        if (!library.has("name"))
+            return library.toString();
+
+        String[] parts = library.get("name").getAsString().split("@")[0].split(":");
+        if (parts.length > 3) {
+            return parts[0] + ":" + parts[1] + ":" + parts[3];
+        }
+        return parts.length > 1 ? parts[0] + ":" + parts[1] : parts[0];
+    }
+
+    static boolean isAllowed(JsonArray rules) {
+        return isAllowed(rules, getOsName(), getArch());
+    }
+
+    static boolean isAllowed(JsonArray rules, String osName, String arch) {
+        if (rules == null || rules.isEmpty())
+            return true;
+
+        boolean allowed = false;
+        for (JsonElement element : rules) {
+            JsonObject rule = element.getAsJsonObject();
+            if (matches(rule, osName, arch)) {
+                allowed = "allow".equals(rule.get("action").getAsString());
+            }
+        }
+        return allowed;
+    }
+
+    private static boolean matches(JsonObject rule, String osName, String arch) {
+        if (rule.has("features"))
+            return false;
+
+        JsonObject os = rule.getAsJsonObject("os");
+        if (os == null)
+            return true;
+
+        if (os.has("name") && !os.get("name").getAsString().equals(osName))
+            return false;
+
+        if (os.has("arch") && !normalizeArch(os.get("arch").getAsString()).equals(arch))
+            return false;
+
+        if (os.has("version")) {
+            String osVersion = System.getProperty("os.version");
+            if (!Pattern.compile(os.get("version").getAsString()).matcher(osVersion).find())
+                return false;
+        }
+
+        return true;
+    }
+
+    static String getArch() {
+        return normalizeArch(System.getProperty("os.arch"));
+    }
+
+    /**
+     * Maps JVM and rule spellings of an architecture onto one name: x86 is 32-bit x86 only, 64-bit x86 is x86_64
+     * and 64-bit ARM is arm64.
+     */
+    static String normalizeArch(String arch) {
+        String value = arch.toLowerCase(Locale.ROOT);
+        return switch (value) {
+            case "i386", "i486", "i586", "i686" -> "x86";
+            case "amd64", "x64" -> "x86_64";
+            case "aarch64" -> "arm64";
+            case "aarch32", "arm32" -> "arm";
+            default -> value;
+        };
+    }
+
+    static String getOsName() {
+        String os = System.getProperty("os.name").toLowerCase();
+        if (os.contains("win")) {
+            return "windows";
+        } else if (os.contains("mac")) {
+            return "osx";
+        } else {
+            return "linux";
+        }
+    }
+}
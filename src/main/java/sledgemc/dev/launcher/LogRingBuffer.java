@@ -0,0 +1,74 @@
+/**
+ * @summary Bounded lock-free multi-producer, single-consumer ring buffer for log lines that drops and counts lines when full.
+ */
+package sledgemc.dev.launcher;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+public class LogRingBuffer {
+
+    private final AtomicReferenceArray<String> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private volatile long head;
+
+    public LogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Publishes a line without blocking. When the consumer has fallen a full buffer behind, the line is dropped and
+     * counted instead, so a chatty producer such as the game's stdout pipe is never stalled.
+     */
+    public boolean offer(String line) {
+        long slot;
+        do {
+            slot = tail.get();
+            if (slot - head >= slots.length()) {
+                dropped.increment();
+                return false;
+            }
+        } while (!tail.compareAndSet(slot, slot + 1));
+
+        slots.lazySet((int) slot & mask, line);
+        return true;
+    }
+
+    /**
+     * Hands up to {@code max} published lines to the consumer in order. Must only be called from a single thread.
+     */
+    public int drain(Consumer<String> consumer, int max) {
+        long current = head;
+        int count = 0;
+        while (count < max) {
+            int index = (int) current & mask;
+            String line = slots.get(index);
+            if (line == null)
+                break;
+
+            slots.lazySet(index, null);
+            current++;
+            head = current;
+            consumer.accept(line);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of lines dropped since the last call and resets the counter.
+     */
+    public long takeDropped() {
+        return dropped.sumThenReset();
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * @summary Virtualized, line-capped log view fed from a ring buffer and refreshed at most once per rendered frame.
+ */
+package sledgemc.dev.launcher;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class LogView extends ListView<String> {
+
+    private static final int BUFFER_CAPACITY = 16384;
+    private static final int MAX_LINES_PER_FRAME = 4096;
+
+    private final LogRingBuffer buffer = new LogRingBuffer(BUFFER_CAPACITY);
+    private final List<String> batch = new ArrayList<>();
+    private final AnimationTimer pump;
+    private int maxLines;
+
+    public LogView(int maxLines) {
+        this.maxLines = Math.max(1, maxLines);
+
+        setFocusTraversable(false);
+        setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty ? null : item);
+                setTextFill(Color.web("#777777"));
+                setFont(Font.font("JetBrains Mono", 10));
+                setStyle("-fx-background-color: transparent; -fx-padding: 0 4 0 4;");
+            }
+        });
+
+        pump = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                flush();
+            }
+        };
+        pump.start();
+    }
+
+    /**
+     * Queues a line for display. Safe to call from any thread; never blocks.
+     */
+    public void append(String line) {
+        buffer.offer(line);
+    }
+
+    public void setMaxLines(int maxLines) {
+        this.maxLines = Math.max(1, maxLines);
+        trim();
+    }
+
+    public void stop() {
+        pump.stop();
+    }
+
+    private void flush() {
+        buffer.drain(batch::add, MAX_LINES_PER_FRAME);
+
+        long dropped = buffer.takeDropped();
+        if (dropped > 0) {
+            batch.add("[SledgeMC] " + dropped + " log lines dropped, output is arriving faster than it can be shown");
+        }
+
+        if (batch.isEmpty())
+            return;
+
+        if (batch.size() > maxLines) {
+            getItems().setAll(batch.subList(batch.size() - maxLines, batch.size()));
+        } else {
+            getItems().addAll(batch);
+            trim();
+        }
+        batch.clear();
+        scrollTo(getItems().size() - 1);
+    }
+
+    private void trim() {
+        int excess = getItems().size() - maxLines;
+        if (excess > 0) {
+            getItems().remove(0, excess);
+        }
+    }
+}
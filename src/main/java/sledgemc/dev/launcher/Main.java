@@ -8,6 +8,17 @@ import javafx.application.Application;
 
 public class Main {
     public static void main(String[] args) {
+        if (HeadlessCli.isCommand(args)) {
+            int code = HeadlessCli.run(args);
+            // a launched game keeps its output thread alive; exiting now would cut its pipe
+            if (code != HeadlessCli.EXIT_OK || !"launch".equals(args[0]))
+                System.exit(code);
+            return;
+        }
+        launchGui(args);
+    }
+
+    private static void launchGui(String[] args) {
         Application.launch(SledgeLauncher.class, args);
     }
 }
@@ -8,39 +8,68 @@ import java.io.*;
 import java.nio.file.*;
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class MinecraftLauncher {
 
+    /**
+     * Logged by the client once its resources and sound engine are up; used to measure startup time.
+     */
+    private static final String STARTUP_MARKER = "Sound engine started";
+    private static final int ASSET_PARALLELISM = 16;
+
     private final String minecraftPath;
     private final String modsPath;
     private final String version;
+    private final JvmTuner.Preset jvmPreset;
+    private final int allocatedMemory;
     private Consumer<String> logger = System.out::println;
 
     public MinecraftLauncher(String minecraftPath, String modsPath, String version) {
+        this(minecraftPath, modsPath, version, JvmTuner.Preset.G1_LOW_PAUSE, 0);
+    }
+
+    public MinecraftLauncher(LaunchConfig config, String version) {
+        this(config.getMinecraftPath(), config.getModsPath(), version, config.getJvmPreset(),
+                config.getAllocatedMemory());
+    }
+
+    public MinecraftLauncher(String minecraftPath, String modsPath, String version, JvmTuner.Preset jvmPreset,
+            int allocatedMemory) {
         this.minecraftPath = minecraftPath;
         this.modsPath = modsPath;
         this.version = version;
+        this.jvmPreset = jvmPreset;
+        this.allocatedMemory = allocatedMemory;
     }
 
     public void setLogger(Consumer<String> logger) {
         this.logger = logger;
     }
 
-    public void launch() throws Exception {
+    /**
+     * Starts the game and returns its process. Output is forwarded to the logger and the session log by a
+     * background thread until the game exits. A warm launch only validates the cached plan before spawning; mod
+     * indexing and, on warm launches, asset verification run on another thread once the game is starting.
+     */
+    public Process launch() throws Exception {
         log("Preparing launch...");
 
         Path mcDir = Paths.get(minecraftPath);
-        Path versionsDir = mcDir.resolve("versions").resolve(version);
-        Path versionJar = versionsDir.resolve(version + ".jar");
-        Path agentJar = AssetDownloader.ensureAgent(this.logger);
-
-        if (!Files.exists(mcDir)) {
-            throw new FileNotFoundException("Minecraft directory not found: " + mcDir);
-        }
+        Map<String, String> settings = getPlanSettings();
+        LaunchPlanCache planCache = new LaunchPlanCache(minecraftPath, version);
 
-        if (!Files.exists(versionJar)) {
-            throw new FileNotFoundException(
-                    "Version JAR not found: " + versionJar + ". Please run vanilla Minecraft " + version + " first.");
+        LaunchPlan plan = planCache.load();
+        boolean warm = plan != null && plan.isValidFor(settings);
+        if (warm) {
+            log("Using cached launch plan: " + planCache.getPlanFile());
+        } else {
+            plan = buildPlan(mcDir, settings, openResolver(mcDir));
+            if (plan.isCacheable()) {
+                planCache.save(plan);
+            }
+            // a new plan may mean a new version whose assets were never fetched, so they are checked before spawning
+            syncAssets(mcDir, plan.getAssetIndex());
         }
 
         Path modsPathDir = Paths.get(modsPath);
@@ -49,36 +78,18 @@ public class MinecraftLauncher {
             log("Created mods directory: " + modsPathDir);
         }
 
-        log("Version JAR: " + versionJar);
-        log("Agent JAR: " + agentJar);
-
-        String classpath = buildClasspath(mcDir, versionsDir, versionJar);
-
-        List<String> command = new ArrayList<>();
-        command.add(getJavaPath());
-
-        command.add("-Xmx4G");
-        command.add("-Xms1G");
-        command.add("-XX:+UnlockExperimentalVMOptions");
-        command.add("-XX:+UseG1GC");
-
-        Path loaderJar = AssetDownloader.ensureLoader(this.version, this.logger);
-        classpath = loaderJar.toAbsolutePath().toString() + File.pathSeparator + classpath;
-
-        command.add("-Djava.library.path=" + versionsDir.resolve("natives"));
-        command.add("-Dminecraft.launcher.brand=SledgeMC");
-        command.add("-Dminecraft.launcher.version=1.0.0");
-
-        command.add("-cp");
-        command.add(classpath);
-        command.add("sledgemc.dev.loader.SledgeBootstrap");
+        CdsArchive cds = CdsArchive.forPlan(version, plan.getFingerprint());
+        switch (cds.getMode()) {
+            case USE -> log("Using CDS archive: " + cds.getArchive());
+            case RECORD -> log("Recording CDS archive at exit: " + cds.getArchive());
+            case DISABLED -> log("CDS archive disabled");
+        }
 
-        command.add("--version");
-        command.add(version);
-        command.add("--gameDir");
-        command.add(minecraftPath);
-        command.add("--assetsDir");
-        command.add(mcDir.resolve("assets").toString());
+        List<String> launchArgs = new ArrayList<>(cds.getJvmArgs());
+        Path nativesDir = plan.getNativesDir();
+        launchArgs.add("-Djava.library.path="
+                + (nativesDir != null ? nativesDir : mcDir.resolve("versions").resolve(version).resolve("natives")));
+        List<String> command = plan.toCommand(getJavaPath(), launchArgs);
 
         log("Starting Minecraft...");
         log("Full Command: " + String.join(" ", command));
@@ -87,38 +98,244 @@ public class MinecraftLauncher {
         pb.directory(mcDir.toFile());
         pb.redirectErrorStream(true);
 
+        long startNanos = System.nanoTime();
         Process process = pb.start();
 
+        SessionLog sessionLog = openSessionLog();
+
         new Thread(() -> {
             try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
                 String line;
+                boolean started = false;
                 while ((line = reader.readLine()) != null) {
+                    if (!started && line.contains(STARTUP_MARKER)) {
+                        started = true;
+                        log(cds.recordStartup((System.nanoTime() - startNanos) / 1_000_000));
+                    }
+                    if (sessionLog != null) {
+                        try {
+                            sessionLog.append(line);
+                        } catch (IOException e) {
+                            log("Error writing session log: " + e.getMessage());
+                        }
+                    }
                     log(line);
                 }
             } catch (IOException e) {
                 log("Error reading output: " + e.getMessage());
+            } finally {
+                if (sessionLog != null) {
+                    try {
+                        sessionLog.close();
+                    } catch (IOException e) {
+                        log("Error closing session log: " + e.getMessage());
+                    }
+                }
             }
         }, "MC-Output").start();
 
         log("Minecraft launched with PID: " + process.pid());
+
+        LaunchPlan launched = plan;
+        new Thread(() -> {
+            indexMods(modsPathDir);
+            if (warm) {
+                syncAssets(mcDir, launched.getAssetIndex());
+            }
+        }, "SledgeMC-Maintenance").start();
+        return process;
     }
 
-    private String buildClasspath(Path mcDir, Path versionsDir, Path versionJar) throws IOException {
-        Set<String> entries = new LinkedHashSet<>();
+    private void indexMods(Path modsPathDir) {
+        try {
+            ModIndexer.Result mods = new ModIndexer(modsPathDir).index();
+            log("Indexed " + mods.mods().size() + " mods (" + mods.scanned() + " scanned, " + mods.reused()
+                    + " unchanged) in " + mods.elapsedMs() + "ms");
+        } catch (IOException e) {
+            log("Warning: could not index mods: " + e.getMessage());
+        }
+    }
 
-        entries.add(versionJar.toAbsolutePath().toString());
+    /**
+     * Verifies the version's assets and downloads missing ones. Failures are logged rather than thrown so the game
+     * can still start offline. Disabled with -Dsledgemc.assetSync=false.
+     */
+    public AssetSync.Result syncAssets(Path mcDir) {
+        try {
+            LibraryResolver resolver = openResolver(mcDir);
+            return syncAssets(mcDir, resolver != null ? resolver.getAssetIndex() : null);
+        } catch (IOException e) {
+            log("Warning: asset sync failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private AssetSync.Result syncAssets(Path mcDir, LibraryResolver.AssetIndex assetIndex) {
+        if ("false".equals(System.getProperty("sledgemc.assetSync")) || assetIndex == null)
+            return null;
+
+        try (DownloadEngine engine = new DownloadEngine(ASSET_PARALLELISM, DownloadEngine.DEFAULT_ATTEMPTS)) {
+            AssetSync.Result result = new AssetSync(mcDir.resolve("assets"), engine).sync(assetIndex, this.logger);
+            log("Assets " + assetIndex.id() + ": " + result.objects() + " objects, " + result.cached() + " cached, "
+                    + result.hashed() + " hashed, " + result.downloaded() + " downloaded in " + result.elapsedMs()
+                    + "ms");
+            return result;
+        } catch (IOException e) {
+            log("Warning: asset sync failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Extracts the version's native libraries into the shared natives cache and returns the directory to use as
+     * java.library.path. Versions without natives classifiers keep the directory a vanilla launch would use. Returns
+     * null if extraction failed.
+     */
+    private Path prepareNatives(Path mcDir, LibraryResolver resolver) {
+        Path fallback = mcDir.resolve("versions").resolve(version).resolve("natives");
+        if (resolver == null)
+            return fallback;
+
+        try {
+            List<LibraryResolver.NativeLibrary> natives = resolver.resolveNatives();
+            if (natives.isEmpty())
+                return fallback;
+
+            NativesExtractor.Result result = new NativesExtractor().extract(natives);
+            if (result.reused()) {
+                log("Using extracted natives: " + result.directory());
+            } else {
+                log("Extracted " + result.files() + " native files from " + result.libraries() + " libraries in "
+                        + result.elapsedMs() + "ms: " + result.directory());
+            }
+            return result.directory();
+        } catch (IOException e) {
+            log("Warning: could not extract natives: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Parses the version JSON and its parents, or returns null when the version has none. Only needed when a plan is
+     * built; warm launches take everything from the cached plan.
+     */
+    private LibraryResolver openResolver(Path mcDir) throws IOException {
+        return LibraryResolver.hasVersionJson(mcDir, version) ? new LibraryResolver(mcDir, version) : null;
+    }
+
+    private SessionLog openSessionLog() {
+        try {
+            SessionLog sessionLog = SessionLog.open(version);
+            log("Session log: " + sessionLog.getSessionDir());
+            return sessionLog;
+        } catch (IOException e) {
+            log("Warning: could not open session log: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private LaunchPlan buildPlan(Path mcDir, Map<String, String> settings, LibraryResolver resolver)
+            throws Exception {
+        Path versionsDir = mcDir.resolve("versions").resolve(version);
+        Path versionJar = versionsDir.resolve(version + ".jar");
+        Path agentJar = AssetDownloader.ensureAgent(this.logger);
+
+        if (!Files.exists(mcDir)) {
+            throw new FileNotFoundException("Minecraft directory not found: " + mcDir);
+        }
+
+        if (!Files.exists(versionJar)) {
+            throw new FileNotFoundException(
+                    "Version JAR not found: " + versionJar + ". Please run vanilla Minecraft " + version + " first.");
+        }
+
+        log("Version JAR: " + versionJar);
+        log("Agent JAR: " + agentJar);
+
+        List<Path> versionFiles = new ArrayList<>();
+        List<Path> missingLibraries = new ArrayList<>();
+        String classpath = buildClasspath(mcDir, versionsDir, versionJar, resolver, versionFiles,
+                missingLibraries);
+
+        JvmTuner tuner = getTuner();
+        log("JVM tuning: " + tuner.preview());
+        List<String> jvmArgs = new ArrayList<>(tuner.getArguments());
 
-        Path versionJson = versionsDir.resolve(version + ".json");
-        if (Files.exists(versionJson)) {
+        Path loaderJar = AssetDownloader.ensureLoader(this.version, this.logger);
+        classpath = loaderJar.toAbsolutePath().toString() + File.pathSeparator + classpath;
+
+        jvmArgs.add("-Dminecraft.launcher.brand=SledgeMC");
+        jvmArgs.add("-Dminecraft.launcher.version=1.0.0");
+
+        List<String> gameArgs = new ArrayList<>();
+        gameArgs.add("--version");
+        gameArgs.add(version);
+        gameArgs.add("--gameDir");
+        gameArgs.add(minecraftPath);
+        gameArgs.add("--assetsDir");
+        gameArgs.add(mcDir.resolve("assets").toString());
+
+        LaunchPlan plan = new LaunchPlan(versionFiles, missingLibraries, settings, classpath, jvmArgs,
+                "sledgemc.dev.loader.SledgeBootstrap", gameArgs, resolver != null ? resolver.getAssetIndex() : null,
+                prepareNatives(mcDir, resolver));
+        plan.seal();
+        return plan;
+    }
+
+    private Map<String, String> getPlanSettings() {
+        Map<String, String> settings = new TreeMap<>();
+        settings.put("minecraftPath", minecraftPath);
+        settings.put("modsPath", modsPath);
+        settings.put("version", version);
+        settings.put("javaPath", getJavaPath());
+        settings.put("jvmTuning", String.join(" ", getTuner().getArguments()));
+        return settings;
+    }
+
+    private JvmTuner getTuner() {
+        return JvmTuner.forHost(jvmPreset, allocatedMemory, Paths.get(modsPath));
+    }
+
+    /**
+     * Returns the tuning summary and JVM arguments the next launch would use, without launching.
+     */
+    public String previewJvmArguments() {
+        return getTuner().preview();
+    }
+
+    String buildClasspath(Path mcDir, Path versionsDir, Path versionJar, LibraryResolver resolver,
+            List<Path> versionFiles, List<Path> missingLibraries) throws IOException {
+        Set<String> entries = new LinkedHashSet<>();
+
+        if (resolver != null) {
             log("Found version JSON, parsing libraries...");
+            versionFiles.addAll(resolver.getVersionFiles());
+            for (Path library : resolver.resolveLibraries()) {
+                if (Files.exists(library)) {
+                    entries.add(library.toAbsolutePath().toString());
+                } else {
+                    missingLibraries.add(library);
+                }
+            }
+
+            if (!missingLibraries.isEmpty()) {
+                log("Warning: " + missingLibraries.size() + " libraries are missing, run vanilla Minecraft " + version + " to download them.");
+            }
+            log("Resolved " + entries.size() + " libraries");
+
+            entries.add(versionJar.toAbsolutePath().toString());
+            return String.join(File.pathSeparator, entries);
         }
 
+        entries.add(versionJar.toAbsolutePath().toString());
+
         Path librariesDir = mcDir.resolve("libraries");
         if (Files.exists(librariesDir)) {
-            log("Scanning libraries: " + librariesDir);
-            Files.walk(librariesDir)
-                    .filter(p -> p.toString().endsWith(".jar"))
-                    .forEach(p -> entries.add(p.toAbsolutePath().toString()));
+            log("Version JSON not found, scanning libraries: " + librariesDir);
+            try (Stream<Path> files = Files.walk(librariesDir)) {
+                files.filter(p -> p.toString().endsWith(".jar"))
+                        .forEach(p -> entries.add(p.toAbsolutePath().toString()));
+            }
         }
 
         return String.join(File.pathSeparator, entries);
@@ -0,0 +1,295 @@
+/**
+ * @summary Scans the mods directory in parallel for mod metadata and entrypoints, reusing a persistent per-jar index.
+ */
+package sledgemc.dev.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Opcodes;
+import sledgemc.dev.entrypoint.EntrypointIndex;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+public class ModIndexer {
+
+    public static final String METADATA_FILE = "sledgemc.mod.json";
+
+    private static final Path CACHE_DIR = Paths.get(System.getProperty("user.home"), ".sledgemc", "cache");
+    private static final String ENTRYPOINT_DESC = "Lsledgemc/dev/entrypoint/Entrypoint;";
+    private static final byte[] ENTRYPOINT_BYTES = ENTRYPOINT_DESC.getBytes(StandardCharsets.UTF_8);
+    private static final int FORMAT_VERSION = 1;
+    private static final Gson GSON = new Gson();
+
+    /**
+     * What the index knows about one mod jar. Size and mtime are checked first; the hash only when they differ, so a
+     * touched but unchanged jar is not rescanned.
+     */
+    public record ModInfo(String path, long size, long modified, String sha256, String id, String name,
+            String version, List<String> mixinConfigs, Map<String, List<String>> entrypoints) {
+    }
+
+    public record Result(List<ModInfo> mods, int scanned, int reused, long elapsedMs) {
+    }
+
+    private record CacheFile(int format, List<ModInfo> mods) {
+    }
+
+    private final Path modsDir;
+    private final Path cacheFile;
+
+    public ModIndexer(Path modsDir) {
+        this(modsDir, CACHE_DIR.resolve("mods-"
+                + FileHashes.sha256(modsDir.toAbsolutePath().normalize().toString()).substring(0, 16) + ".json"));
+    }
+
+    public ModIndexer(Path modsDir, Path cacheFile) {
+        this.modsDir = modsDir;
+        this.cacheFile = cacheFile.toAbsolutePath();
+    }
+
+    public Path getCacheFile() {
+        return cacheFile;
+    }
+
+    /**
+     * Indexes every jar in the mods directory. Jars whose size, mtime or hash still match the cached entry are
+     * reused; the rest are scanned in parallel and the cache is rewritten only if an entry was added, removed or
+     * changed.
+     */
+    public Result index() throws IOException {
+        long start = System.nanoTime();
+        if (!Files.isDirectory(modsDir))
+            return new Result(List.of(), 0, 0, 0);
+
+        List<Path> jars;
+        try (Stream<Path> files = Files.list(modsDir)) {
+            jars = files.filter(p -> p.getFileName().toString().endsWith(".jar") && Files.isRegularFile(p))
+                    .sorted()
+                    .toList();
+        }
+
+        Map<String, ModInfo> cached = loadCache();
+        List<Path> changed = new ArrayList<>();
+        ModInfo[] results = new ModInfo[jars.size()];
+        for (int i = 0; i < jars.size(); i++) {
+            Path jar = jars.get(i);
+            ModInfo previous = cached.get(jar.toAbsolutePath().toString());
+            BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+            if (previous != null && previous.size() == attributes.size()
+                    && previous.modified() == attributes.lastModifiedTime().toMillis()) {
+                results[i] = previous;
+            } else {
+                changed.add(jar);
+            }
+        }
+
+        Map<Path, ModInfo> scanned = new HashMap<>();
+        changed.parallelStream()
+                .map(jar -> scan(jar, cached.get(jar.toAbsolutePath().toString())))
+                .filter(Objects::nonNull)
+                .toList()
+                .forEach(info -> scanned.put(Paths.get(info.path()), info));
+
+        List<ModInfo> mods = new ArrayList<>(jars.size());
+        Map<String, ModInfo> byPath = new HashMap<>();
+        for (int i = 0; i < jars.size(); i++) {
+            ModInfo info = results[i] != null ? results[i] : scanned.get(jars.get(i).toAbsolutePath());
+            if (info != null) {
+                mods.add(info);
+                byPath.put(info.path(), info);
+            }
+        }
+
+        // a jar that fails to scan has no entry either way, so it does not force a rewrite on every launch
+        if (!byPath.equals(cached)) {
+            saveCache(mods);
+        }
+        return new Result(Collections.unmodifiableList(mods), changed.size(), jars.size() - changed.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private ModInfo scan(Path jar, ModInfo previous) {
+        try {
+            long size = Files.size(jar);
+            long modified = Files.getLastModifiedTime(jar).toMillis();
+            String hash = FileHashes.sha256(jar);
+            String path = jar.toAbsolutePath().toString();
+            if (previous != null && hash.equals(previous.sha256())) {
+                return new ModInfo(path, size, modified, hash, previous.id(), previous.name(), previous.version(),
+                        previous.mixinConfigs(), previous.entrypoints());
+            }
+
+            try (ZipFile zip = new ZipFile(jar.toFile())) {
+                String fileName = jar.getFileName().toString();
+                String id = fileName.substring(0, fileName.length() - 4);
+                String name = id;
+                String version = null;
+                List<String> mixins = new ArrayList<>();
+
+                ZipEntry manifestEntry = zip.getEntry("META-INF/MANIFEST.MF");
+                if (manifestEntry != null) {
+                    try (InputStream in = zip.getInputStream(manifestEntry)) {
+                        Attributes attributes = new Manifest(in).getMainAttributes();
+                        if (attributes.getValue("Implementation-Title") != null)
+                            name = attributes.getValue("Implementation-Title");
+                        version = attributes.getValue("Implementation-Version");
+                    }
+                }
+
+                ZipEntry metadataEntry = zip.getEntry(METADATA_FILE);
+                if (metadataEntry != null) {
+                    try (InputStream in = zip.getInputStream(metadataEntry)) {
+                        JsonObject metadata = JsonParser.parseString(
+                                new String(in.readAllBytes(), StandardCharsets.UTF_8)).getAsJsonObject();
+                        id = string(metadata, "id", id);
+                        name = string(metadata, "name", name);
+                        version = string(metadata, "version", version);
+                        JsonArray configs = metadata.getAsJsonArray("mixins");
+                        if (configs != null) {
+                            for (JsonElement config : configs) {
+                                mixins.add(config.getAsString());
+                            }
+                        }
+                    }
+                }
+
+                return new ModInfo(path, size, modified, hash, id, name, version, List.copyOf(mixins),
+                        readEntrypoints(zip));
+            }
+        } catch (Exception e) {
+            System.err.println("[SledgeMC] Failed to index mod " + jar.getFileName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the entrypoints listed in the jar's compile-time index, or scans its classes when it has none.
+     */
+    static Map<String, List<String>> readEntrypoints(ZipFile zip) throws IOException {
+        ZipEntry indexEntry = zip.getEntry(EntrypointIndex.RESOURCE);
+        if (indexEntry != null) {
+            try (InputStream in = zip.getInputStream(indexEntry)) {
+                return EntrypointIndex.read(in);
+            } catch (IOException e) {
+                System.err.println("[SledgeMC] Ignoring entrypoint index of " + zip.getName() + ": " + e.getMessage());
+            }
+        }
+        return scanEntrypoints(zip);
+    }
+
+    /**
+     * Finds classes annotated with {@code @Entrypoint}, grouped by the annotation's value. Classes whose constant
+     * pool cannot contain the annotation descriptor are skipped before ASM parses them.
+     */
+    static Map<String, List<String>> scanEntrypoints(ZipFile zip) throws IOException {
+        Map<String, List<String>> entrypoints = new TreeMap<>();
+        Enumeration<? extends ZipEntry> entries = zip.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            String entryName = entry.getName();
+            if (entry.isDirectory() || !entryName.endsWith(".class") || entryName.startsWith("META-INF/"))
+                continue;
+
+            byte[] bytes;
+            try (InputStream in = zip.getInputStream(entry)) {
+                bytes = in.readAllBytes();
+            }
+            if (indexOf(bytes, ENTRYPOINT_BYTES) < 0)
+                continue;
+
+            String group = readEntrypoint(bytes);
+            if (group != null) {
+                String className = entryName.substring(0, entryName.length() - 6).replace('/', '.');
+                entrypoints.computeIfAbsent(group, k -> new ArrayList<>()).add(className);
+            }
+        }
+        entrypoints.replaceAll((group, classes) -> List.copyOf(classes));
+        return entrypoints;
+    }
+
+    /**
+     * Returns the entrypoint group of a class, or null if it is not annotated.
+     */
+    static String readEntrypoint(byte[] classBytes) {
+        String[] group = new String[1];
+        new ClassReader(classBytes).accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+                if (!ENTRYPOINT_DESC.equals(descriptor))
+                    return null;
+
+                group[0] = "main";
+                return new AnnotationVisitor(Opcodes.ASM9) {
+                    @Override
+                    public void visit(String name, Object value) {
+                        if ("value".equals(name) && value instanceof String s)
+                            group[0] = s;
+                    }
+                };
+            }
+        }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        return group[0];
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle) {
+        byte first = needle[0];
+        int last = haystack.length - needle.length;
+        outer: for (int i = 0; i <= last; i++) {
+            if (haystack[i] != first)
+                continue;
+            for (int j = 1; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j])
+                    continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static String string(JsonObject object, String key, String fallback) {
+        JsonElement value = object.get(key);
+        return value != null && value.isJsonPrimitive() ? value.getAsString() : fallback;
+    }
+
+    private Map<String, ModInfo> loadCache() {
+        if (!Files.exists(cacheFile))
+            return Map.of();
+        try {
+            CacheFile cache = GSON.fromJson(Files.readString(cacheFile), CacheFile.class);
+            if (cache == null || cache.format() != FORMAT_VERSION || cache.mods() == null)
+                return Map.of();
+            Map<String, ModInfo> byPath = new HashMap<>();
+            for (ModInfo info : cache.mods()) {
+                byPath.put(info.path(), info);
+            }
+            return byPath;
+        } catch (Exception e) {
+            System.err.println("[SledgeMC] Failed to read mod index: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private void saveCache(List<ModInfo> mods) {
+        try {
+            AtomicFiles.writeString(cacheFile, GSON.toJson(new CacheFile(FORMAT_VERSION, mods)));
+        } catch (IOException e) {
+            System.err.println("[SledgeMC] Failed to save mod index: " + e.getMessage());
+        }
+    }
+}
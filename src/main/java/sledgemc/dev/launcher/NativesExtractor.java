@@ -0,0 +1,166 @@
+/**
+ * @summary Extracts native library jars in parallel into a shared directory keyed by their content, reused across launches and instances.
+ */
+package sledgemc.dev.launcher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+public class NativesExtractor {
+
+    public static final Path NATIVES_DIR = Paths.get(System.getProperty("user.home"), ".sledgemc", "natives");
+    static final String COMPLETE_MARKER = ".complete";
+    private static final int FORMAT_VERSION = 1;
+
+    public record Result(Path directory, int libraries, int files, boolean reused, long elapsedMs) {
+    }
+
+    private final Path root;
+
+    public NativesExtractor() {
+        this(NATIVES_DIR);
+    }
+
+    public NativesExtractor(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Returns a directory holding the extracted natives, extracting them only if no complete directory exists for
+     * the same content yet. Extraction happens in a private temporary directory that is renamed into place with
+     * its completion marker, so concurrent launchers never see a partial directory and the loser of a race simply
+     * reuses the winner's result.
+     */
+    public Result extract(List<LibraryResolver.NativeLibrary> natives) throws IOException {
+        long start = System.nanoTime();
+        List<LibraryResolver.NativeLibrary> present = new ArrayList<>();
+        for (LibraryResolver.NativeLibrary library : natives) {
+            if (Files.exists(library.jar())) {
+                present.add(library);
+            } else {
+                System.err.println("[SledgeMC] Native library missing: " + library.jar());
+            }
+        }
+
+        Path target = root.resolve(contentKey(present));
+        if (Files.exists(target.resolve(COMPLETE_MARKER))) {
+            return new Result(target, present.size(), 0, true, (System.nanoTime() - start) / 1_000_000);
+        }
+
+        Files.createDirectories(root);
+        Path temp = root.resolve(target.getFileName() + ".tmp-" + UUID.randomUUID());
+        Files.createDirectories(temp);
+        int files;
+        try {
+            files = present.parallelStream().mapToInt(library -> {
+                try {
+                    return extractJar(library, temp);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).sum();
+            Files.writeString(temp.resolve(COMPLETE_MARKER), Integer.toString(files));
+
+            if (Files.exists(target) && !Files.exists(target.resolve(COMPLETE_MARKER))) {
+                deleteTree(target);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                if (!Files.exists(target.resolve(COMPLETE_MARKER)))
+                    throw e;
+                // another launcher finished the same extraction first
+                deleteTree(temp);
+                return new Result(target, present.size(), 0, true, (System.nanoTime() - start) / 1_000_000);
+            }
+        } catch (UncheckedIOException e) {
+            deleteTree(temp);
+            throw e.getCause();
+        } catch (IOException e) {
+            deleteTree(temp);
+            throw e;
+        }
+
+        return new Result(target, present.size(), files, false, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static int extractJar(LibraryResolver.NativeLibrary library, Path dir) throws IOException {
+        int count = 0;
+        try (ZipFile zip = new ZipFile(library.jar().toFile())) {
+            var entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory() || isExcluded(entry.getName(), library.exclude()))
+                    continue;
+
+                Path out = dir.resolve(entry.getName()).normalize();
+                if (!out.startsWith(dir)) {
+                    throw new IOException("Native entry escapes the natives directory: " + entry.getName());
+                }
+                Files.createDirectories(out.getParent());
+                try (InputStream in = zip.getInputStream(entry)) {
+                    Files.copy(in, out);
+                    count++;
+                } catch (FileAlreadyExistsException e) {
+                    // the same file shipped by two jars; the first one extracted wins
+                }
+            }
+        }
+        return count;
+    }
+
+    private static boolean isExcluded(String name, List<String> exclude) {
+        for (String prefix : exclude) {
+            if (name.startsWith(prefix))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Keys the directory by what ends up in it: the declared checksum of each jar, or its size and mtime when the
+     * JSON has none, plus its excludes. Instances with identical natives share a directory whatever their paths.
+     */
+    static String contentKey(List<LibraryResolver.NativeLibrary> natives) throws IOException {
+        List<String> parts = new ArrayList<>();
+        for (LibraryResolver.NativeLibrary library : natives) {
+            String identity;
+            if (library.sha1() != null) {
+                identity = library.sha1();
+            } else {
+                BasicFileAttributes attributes = Files.readAttributes(library.jar(), BasicFileAttributes.class);
+                identity = library.jar().toAbsolutePath() + "|" + attributes.size() + "|"
+                        + attributes.lastModifiedTime().toMillis();
+            }
+            parts.add(identity + "|" + String.join(",", library.exclude()));
+        }
+        parts.sort(Comparator.naturalOrder());
+        return FileHashes.sha256("v" + FORMAT_VERSION + "\n" + System.getProperty("os.name") + "\n"
+                + System.getProperty("os.arch") + "\n" + String.join("\n", parts)).substring(0, 24);
+    }
+
+    private static void deleteTree(Path dir) {
+        if (!Files.exists(dir))
+            return;
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException ignored) {
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("[SledgeMC] Failed to clean up " + dir + ": " + e.getMessage());
+        }
+    }
+}
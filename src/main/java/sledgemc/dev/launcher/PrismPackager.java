@@ -9,12 +9,8 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 public class PrismPackager {
 
@@ -26,53 +22,40 @@ public class PrismPackager {
     }
 
     public void createPackage(Path destinationZip) throws IOException {
-        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(destinationZip.toFile()))) {
-
-            String packJson = generateMmcPack();
-            zos.putNextEntry(new ZipEntry("mmc-pack.json"));
-            zos.write(packJson.getBytes());
-            zos.closeEntry();
-
-            String instanceCfg = "InstanceType=OneSix\n" +
-                    "name=SledgeMC-" + mcVersion + "\n" +
-                    "notes=Generated by SledgeLauncher\n";
-            zos.putNextEntry(new ZipEntry("instance.cfg"));
-            zos.write(instanceCfg.getBytes());
-            zos.closeEntry();
-
-            String patchJson = generatePatchJson();
-            zos.putNextEntry(new ZipEntry("patches/sledgemc.dev.loader.json"));
-            zos.write(patchJson.getBytes());
-            zos.closeEntry();
-
-            try {
-                Path sourceLoader = AssetDownloader.ensureLoader(mcVersion, System.out::println);
-                zos.putNextEntry(new ZipEntry("libraries/SledgeMC-Loader-" + mcVersion + ".jar"));
-                Files.copy(sourceLoader, zos);
-                zos.closeEntry();
-            } catch (Exception e) {
-                System.err.println("[SledgeMC] Failed to include loader: " + e.getMessage());
-                throw new IOException("Failed to download loader for package.", e);
-            }
-
-            try {
-                Path sourceAgent = AssetDownloader.ensureAgent(System.out::println);
-                zos.putNextEntry(new ZipEntry("libraries/sledge-agent.jar"));
-                Files.copy(sourceAgent, zos);
-                zos.closeEntry();
-            } catch (Exception e) {
-                System.err.println("[SledgeMC] Failed to include agent: " + e.getMessage());
-            }
-
-            try {
-                Path sourceApi = AssetDownloader.ensureApi(System.out::println);
-                zos.putNextEntry(new ZipEntry("libraries/sledge-api.jar"));
-                Files.copy(sourceApi, zos);
-                zos.closeEntry();
-            } catch (Exception e) {
-                System.err.println("[SledgeMC] Failed to include API: " + e.getMessage());
-            }
+        ZipExportWriter zip = new ZipExportWriter();
+
+        zip.addString("mmc-pack.json", generateMmcPack());
+
+        String instanceCfg = "InstanceType=OneSix\n" +
+                "name=SledgeMC-" + mcVersion + "\n" +
+                "notes=Generated by SledgeLauncher\n";
+        zip.addString("instance.cfg", instanceCfg);
+
+        zip.addString("patches/sledgemc.dev.loader.json", generatePatchJson());
+
+        try {
+            Path sourceLoader = AssetDownloader.ensureLoader(mcVersion, System.out::println);
+            zip.addFile("libraries/SledgeMC-Loader-" + mcVersion + ".jar", sourceLoader);
+        } catch (Exception e) {
+            System.err.println("[SledgeMC] Failed to include loader: " + e.getMessage());
+            throw new IOException("Failed to download loader for package.", e);
         }
+
+        try {
+            Path sourceAgent = AssetDownloader.ensureAgent(System.out::println);
+            zip.addFile("libraries/sledge-agent.jar", sourceAgent);
+        } catch (Exception e) {
+            System.err.println("[SledgeMC] Failed to include agent: " + e.getMessage());
+        }
+
+        try {
+            Path sourceApi = AssetDownloader.ensureApi(System.out::println);
+            zip.addFile("libraries/sledge-api.jar", sourceApi);
+        } catch (Exception e) {
+            System.err.println("[SledgeMC] Failed to include API: " + e.getMessage());
+        }
+
+        zip.write(destinationZip);
     }
 
     private String generateMmcPack() {
@@ -4,78 +4,62 @@
  */
 package sledgemc.dev.launcher;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class ProfileInstaller {
 
+    private static final String MAIN_CLASS = "sledgemc.dev.loader.SledgeBootstrap";
+    private static final String AGENT_VERSION = "agent-v1.0.0";
+    private static final String API_VERSION = "v1.0.0";
+
     private final String minecraftPath;
     private final String mcVersion;
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 
     public ProfileInstaller(String minecraftPath, String mcVersion) {
         this.minecraftPath = minecraftPath;
         this.mcVersion = mcVersion;
     }
 
-    public void install() throws IOException {
-        String profileName = "SledgeMC-" + mcVersion;
-        Path mcDir = Paths.get(minecraftPath);
-
-        Path profileDir = mcDir.resolve("versions").resolve(profileName);
-        if (!Files.exists(profileDir)) {
-            Files.createDirectories(profileDir);
-        }
+    public enum Action {
+        UNCHANGED, LINKED, COPIED, WRITTEN, FAILED
+    }
 
-        Path sourceLoader;
-        try {
-            sourceLoader = AssetDownloader.ensureLoader(mcVersion, System.out::println);
-        } catch (Exception e) {
-            throw new IOException("Failed to download loader: " + e.getMessage(), e);
-        }
+    public record Change(Path target, Action action, String detail) {
+    }
 
-        Path libDir = mcDir.resolve("libraries").resolve("com").resolve("github").resolve("Astera-Solutions")
-                .resolve("SledgeMC-Loader").resolve(mcVersion);
-        Files.createDirectories(libDir);
-        Path targetLib = libDir.resolve("SledgeMC-Loader-" + mcVersion + ".jar");
-        Files.copy(sourceLoader, targetLib, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * What an install did to each target. Re-running an install on an up-to-date profile reports only
+     * {@link Action#UNCHANGED} entries.
+     */
+    public record Report(String profile, List<Change> changes, long elapsedMs) {
 
-        try {
-            Path sourceAgent = AssetDownloader.ensureAgent(System.out::println);
-            Path agentLibDir = mcDir.resolve("libraries").resolve("com").resolve("github").resolve("Astera-Solutions")
-                    .resolve("SledgeMC-Agent").resolve("agent-v1.0.0");
-            Files.createDirectories(agentLibDir);
-            Path targetAgentLib = agentLibDir.resolve("SledgeMC-Agent-agent-v1.0.0.jar");
-            Files.copy(sourceAgent, targetAgentLib, StandardCopyOption.REPLACE_EXISTING);
-        } catch (Exception e) {
-            System.err.println("[SledgeMC] Failed to install agent: " + e.getMessage());
+        public long changedCount() {
+            return changes.stream().filter(c -> c.action() != Action.UNCHANGED).count();
         }
 
-        try {
-            Path sourceApi = AssetDownloader.ensureApi(System.out::println);
-            Path apiLibDir = mcDir.resolve("libraries").resolve("com").resolve("github").resolve("Astera-Solutions")
-                    .resolve("Sledge-API").resolve("v1.0.0");
-            Files.createDirectories(apiLibDir);
-            Path targetApiLib = apiLibDir.resolve("Sledge-API-v1.0.0.jar");
-            Files.copy(sourceApi, targetApiLib, StandardCopyOption.REPLACE_EXISTING);
-        } catch (Exception e) {
-            System.err.println("[SledgeMC] Failed to install API: " + e.getMessage());
+        public String summary() {
+            return profile + ": " + changedCount() + " of " + changes.size() + " targets changed in " + elapsedMs
+                    + "ms";
         }
+    }
 
-        Path targetVersionJar = profileDir.resolve(profileName + ".jar");
-        Files.copy(sourceLoader, targetVersionJar, StandardCopyOption.REPLACE_EXISTING);
+    private record Deployment(Path source, Path target, boolean required) {
+    }
 
-        Path vanillaDir = mcDir.resolve("versions").resolve(mcVersion);
-        Path vanillaJsonFile = vanillaDir.resolve(mcVersion + ".json");
+    public Report install() throws IOException {
+        long start = System.nanoTime();
+        String profileName = getProfileName();
+        Path mcDir = Paths.get(minecraftPath);
+        Path vanillaJsonFile = mcDir.resolve("versions").resolve(mcVersion).resolve(mcVersion + ".json");
 
         if (!Files.exists(vanillaJsonFile)) {
             throw new IOException(
@@ -83,36 +67,205 @@ public class ProfileInstaller {
                             + " first.");
         }
 
-        String vanillaContent = Files.readString(vanillaJsonFile);
-        JsonObject json = GSON.fromJson(vanillaContent, JsonObject.class);
+        List<Change> changes = new ArrayList<>();
+        for (Deployment deployment : plan(mcDir, fetchArtifacts())) {
+            if (deployment.source() == null) {
+                changes.add(new Change(deployment.target(), Action.FAILED, "artifact unavailable"));
+                continue;
+            }
+            try {
+                ContentStore.DeployResult result = AssetDownloader.getStore().deploy(deployment.source(),
+                        deployment.target());
+                changes.add(new Change(deployment.target(), switch (result) {
+                    case SKIPPED -> Action.UNCHANGED;
+                    case LINKED -> Action.LINKED;
+                    case COPIED -> Action.COPIED;
+                }, null));
+            } catch (IOException e) {
+                if (deployment.required())
+                    throw e;
+                changes.add(new Change(deployment.target(), Action.FAILED, e.getMessage()));
+            }
+        }
+
+        Path jsonFile = mcDir.resolve("versions").resolve(profileName).resolve(profileName + ".json");
+        boolean written = writeIfChanged(jsonFile, rewriteVersionJson(vanillaJsonFile, profileName));
+        changes.add(new Change(jsonFile, written ? Action.WRITTEN : Action.UNCHANGED, null));
 
-        json.addProperty("id", profileName);
-        json.addProperty("mainClass", "sledgemc.dev.loader.SledgeBootstrap");
+        for (Change change : changes) {
+            String detail = change.detail() != null ? " (" + change.detail() + ")" : "";
+            System.out.println("[SledgeMC] " + change.target().getFileName() + ": "
+                    + change.action().name().toLowerCase() + detail);
+        }
+        return new Report(profileName, List.copyOf(changes), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public String getProfileName() {
+        return "SledgeMC-" + mcVersion;
+    }
+
+    /**
+     * Fetches the loader, agent and API in one batch. If the batch fails, the loader is retried on its own and the
+     * optional agent and API are skipped individually, as before.
+     */
+    private AssetDownloader.Artifacts fetchArtifacts() throws IOException {
+        try {
+            return AssetDownloader.ensureAll(mcVersion, System.out::println);
+        } catch (Exception batchFailure) {
+            Path loader;
+            try {
+                loader = AssetDownloader.ensureLoader(mcVersion, System.out::println);
+            } catch (Exception e) {
+                throw new IOException("Failed to download loader: " + e.getMessage(), e);
+            }
+            Path agent = null;
+            Path api = null;
+            try {
+                agent = AssetDownloader.ensureAgent(System.out::println);
+            } catch (Exception e) {
+                System.err.println("[SledgeMC] Failed to install agent: " + e.getMessage());
+            }
+            try {
+                api = AssetDownloader.ensureApi(System.out::println);
+            } catch (Exception e) {
+                System.err.println("[SledgeMC] Failed to install API: " + e.getMessage());
+            }
+            return new AssetDownloader.Artifacts(loader, agent, api);
+        }
+    }
 
-        JsonArray libraries = json.getAsJsonArray("libraries");
-        if (libraries == null)
-            libraries = new JsonArray();
+    /**
+     * Every file the install places, in order. The loader is required; the agent and API are best effort.
+     */
+    private List<Deployment> plan(Path mcDir, AssetDownloader.Artifacts artifacts) {
+        Path astera = mcDir.resolve("libraries").resolve("com").resolve("github").resolve("Astera-Solutions");
+        String profileName = getProfileName();
+        return List.of(
+                new Deployment(artifacts.loader(), astera.resolve("SledgeMC-Loader").resolve(mcVersion)
+                        .resolve("SledgeMC-Loader-" + mcVersion + ".jar"), true),
+                new Deployment(artifacts.agent(), astera.resolve("SledgeMC-Agent").resolve(AGENT_VERSION)
+                        .resolve("SledgeMC-Agent-" + AGENT_VERSION + ".jar"), false),
+                new Deployment(artifacts.api(), astera.resolve("Sledge-API").resolve(API_VERSION)
+                        .resolve("Sledge-API-" + API_VERSION + ".jar"), false),
+                new Deployment(artifacts.loader(), mcDir.resolve("versions").resolve(profileName)
+                        .resolve(profileName + ".jar"), true));
+    }
 
-        JsonObject sledgeLib = new JsonObject();
-        sledgeLib.addProperty("name", "com.github.Astera-Solutions:SledgeMC-Loader:" + mcVersion);
+    /**
+     * Streams the vanilla version JSON into the profile JSON token by token, replacing the id and main class and
+     * putting the SledgeMC libraries in front of the vanilla ones, without building a tree of the whole document.
+     */
+    byte[] rewriteVersionJson(Path vanillaJsonFile, String profileName) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) Files.size(vanillaJsonFile) + 512);
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(vanillaJsonFile, StandardCharsets.UTF_8));
+                JsonWriter writer = new JsonWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8))) {
+            writer.setIndent("  ");
+            boolean[] seen = new boolean[3];
 
-        JsonObject sledgeAgentLib = new JsonObject();
-        sledgeAgentLib.addProperty("name", "com.github.Astera-Solutions:SledgeMC-Agent:agent-v1.0.0");
+            reader.beginObject();
+            writer.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                switch (name) {
+                    case "id" -> {
+                        reader.skipValue();
+                        writer.name(name).value(profileName);
+                        seen[0] = true;
+                    }
+                    case "mainClass" -> {
+                        reader.skipValue();
+                        writer.name(name).value(MAIN_CLASS);
+                        seen[1] = true;
+                    }
+                    case "libraries" -> {
+                        writer.name(name);
+                        writer.beginArray();
+                        writeSledgeLibraries(writer);
+                        if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                            reader.beginArray();
+                            while (reader.hasNext()) {
+                                copy(reader, writer);
+                            }
+                            reader.endArray();
+                        } else {
+                            reader.skipValue();
+                        }
+                        writer.endArray();
+                        seen[2] = true;
+                    }
+                    default -> {
+                        writer.name(name);
+                        copy(reader, writer);
+                    }
+                }
+            }
+            reader.endObject();
 
-        JsonObject sledgeApiLib = new JsonObject();
-        sledgeApiLib.addProperty("name", "com.github.Astera-Solutions:Sledge-API:v1.0.0");
+            if (!seen[0])
+                writer.name("id").value(profileName);
+            if (!seen[1])
+                writer.name("mainClass").value(MAIN_CLASS);
+            if (!seen[2]) {
+                writer.name("libraries").beginArray();
+                writeSledgeLibraries(writer);
+                writer.endArray();
+            }
+            writer.endObject();
+        }
+        return buffer.toByteArray();
+    }
 
-        JsonArray newLibraries = new JsonArray();
-        newLibraries.add(sledgeLib);
-        newLibraries.add(sledgeAgentLib);
-        newLibraries.add(sledgeApiLib);
-        for (JsonElement lib : libraries) {
-            newLibraries.add(lib);
+    private void writeSledgeLibraries(JsonWriter writer) throws IOException {
+        for (String library : new String[] { "com.github.Astera-Solutions:SledgeMC-Loader:" + mcVersion,
+                "com.github.Astera-Solutions:SledgeMC-Agent:" + AGENT_VERSION,
+                "com.github.Astera-Solutions:Sledge-API:" + API_VERSION }) {
+            writer.beginObject().name("name").value(library).endObject();
         }
-        json.add("libraries", newLibraries);
+    }
 
-        Path jsonFile = profileDir.resolve(profileName + ".json");
-        Files.writeString(jsonFile, GSON.toJson(json));
+    private static void copy(JsonReader reader, JsonWriter writer) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_ARRAY -> {
+                reader.beginArray();
+                writer.beginArray();
+                while (reader.hasNext()) {
+                    copy(reader, writer);
+                }
+                reader.endArray();
+                writer.endArray();
+            }
+            case BEGIN_OBJECT -> {
+                reader.beginObject();
+                writer.beginObject();
+                while (reader.hasNext()) {
+                    writer.name(reader.nextName());
+                    copy(reader, writer);
+                }
+                reader.endObject();
+                writer.endObject();
+            }
+            case STRING -> writer.value(reader.nextString());
+            case NUMBER -> writer.jsonValue(reader.nextString());
+            case BOOLEAN -> writer.value(reader.nextBoolean());
+            case NULL -> {
+                reader.nextNull();
+                writer.nullValue();
+            }
+            default -> throw new IOException("Unexpected JSON token " + reader.peek() + " at " + reader.getPath());
+        }
     }
 
+    /**
+     * Writes the content through a temporary file and an atomic move, unless the target already holds exactly
+     * these bytes. Returns whether anything was written.
+     */
+    private static boolean writeIfChanged(Path target, byte[] content) throws IOException {
+        if (Files.exists(target) && Files.size(target) == content.length
+                && Arrays.equals(Files.readAllBytes(target), content)) {
+            return false;
+        }
+
+        AtomicFiles.write(target, content);
+        return true;
+    }
 }
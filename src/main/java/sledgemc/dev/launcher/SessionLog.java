@@ -0,0 +1,202 @@
+/**
+ * @summary Writes a game session's output to size-rotated log segments, gzipping rotated ones in the background, with a sidecar index.
+ */
+package sledgemc.dev.launcher;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+public class SessionLog implements Closeable {
+
+    public static final Path LOGS_DIR = Paths.get(System.getProperty("user.home"), ".sledgemc", "logs");
+    public static final String INDEX_FILE = "session.idx";
+    public static final long DEFAULT_SEGMENT_BYTES = 16L * 1024 * 1024;
+    public static final int KEPT_SESSIONS = 20;
+
+    static final long CHECKPOINT_MILLIS = 1000;
+    static final int RECORD_BYTES = 8 + 4 + 8 + 1;
+
+    private static final Pattern LEVEL_PATTERN = Pattern.compile("/(TRACE|DEBUG|INFO|WARN|ERROR|FATAL)\\]");
+    private static final Pattern TIMESTAMP_PATTERN = Pattern.compile("\\d{2}:\\d{2}:\\d{2}|\\d{4}-\\d{2}-\\d{2}");
+    private static final DateTimeFormatter SESSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    public enum Level {
+        TRACE, DEBUG, INFO, WARN, ERROR, FATAL
+    }
+
+    private final Path sessionDir;
+    private final long segmentBytes;
+    private final DataOutputStream index;
+    private final ExecutorService compressor;
+
+    private OutputStream segment;
+    private int segmentNumber = -1;
+    private long segmentOffset;
+    private long lastRecordMillis;
+    private Level currentLevel = Level.INFO;
+
+    public SessionLog(Path sessionDir, long segmentBytes) throws IOException {
+        this.sessionDir = sessionDir;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(sessionDir);
+        this.index = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(sessionDir.resolve(INDEX_FILE), StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND)));
+        this.compressor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "SledgeMC-LogCompressor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        openSegment();
+    }
+
+    /**
+     * Starts a new session directory under ~/.sledgemc/logs and prunes the oldest sessions beyond the retention.
+     */
+    public static SessionLog open(String version) throws IOException {
+        pruneSessions();
+        String name = LocalDateTime.now().format(SESSION_FORMAT) + "-" + version;
+        Path dir = LOGS_DIR.resolve(name);
+        for (int i = 1; Files.exists(dir); i++) {
+            dir = LOGS_DIR.resolve(name + "-" + i);
+        }
+        return new SessionLog(dir, DEFAULT_SEGMENT_BYTES);
+    }
+
+    public Path getSessionDir() {
+        return sessionDir;
+    }
+
+    static Path segmentPath(Path sessionDir, int number) {
+        return sessionDir.resolve(String.format("session-%03d.log", number));
+    }
+
+    /**
+     * Appends a line. Lines that do not start a new record, such as exception headers and stack trace frames, take
+     * the previous line's level. An index record is written for every WARN or worse line and at least once per
+     * second. Segments rotate at their size limit even inside a stack trace; the reader follows it into the next one.
+     */
+    public synchronized void append(String line) throws IOException {
+        Level level = parseLevel(line);
+        boolean continuation = level == null;
+        if (!continuation)
+            currentLevel = level;
+
+        byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+        if (segmentOffset > 0 && segmentOffset + bytes.length > segmentBytes) {
+            rotate();
+        }
+
+        long now = System.currentTimeMillis();
+        boolean important = !continuation && currentLevel.compareTo(Level.WARN) >= 0;
+        if (important || now - lastRecordMillis >= CHECKPOINT_MILLIS) {
+            index.writeLong(now);
+            index.writeInt(segmentNumber);
+            index.writeLong(segmentOffset);
+            index.writeByte(currentLevel.ordinal() | (continuation ? 0x80 : 0));
+            lastRecordMillis = now;
+            segment.flush();
+            index.flush();
+        }
+
+        segment.write(bytes);
+        segmentOffset += bytes.length;
+    }
+
+    /**
+     * Returns the level of a line that starts a new record, or null for a continuation line. Only lines that open with
+     * a {@code [} prefix or a timestamp start a record; anything else, such as {@code java.lang.RuntimeException: boom}
+     * after an ERROR line, continues the one before it.
+     */
+    static Level parseLevel(String line) {
+        if (line.isEmpty())
+            return null;
+        char first = line.charAt(0);
+        if (first != '[' && !(Character.isDigit(first) && TIMESTAMP_PATTERN.matcher(line).lookingAt()))
+            return null;
+
+        Matcher matcher = LEVEL_PATTERN.matcher(line);
+        if (matcher.region(0, Math.min(line.length(), 96)).find()) {
+            return Level.valueOf(matcher.group(1));
+        }
+        return Level.INFO;
+    }
+
+    private void openSegment() throws IOException {
+        segmentNumber++;
+        segmentOffset = 0;
+        segment = new BufferedOutputStream(Files.newOutputStream(segmentPath(sessionDir, segmentNumber)), 65536);
+        lastRecordMillis = 0;
+    }
+
+    private void rotate() throws IOException {
+        segment.close();
+        Path finished = segmentPath(sessionDir, segmentNumber);
+        compressor.submit(() -> compress(finished));
+        openSegment();
+    }
+
+    private static void compress(Path file) {
+        Path gz = file.resolveSibling(file.getFileName() + ".gz");
+        try {
+            AtomicFiles.write(gz, temp -> {
+                try (InputStream in = Files.newInputStream(file);
+                        OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 65536)) {
+                    in.transferTo(out);
+                }
+            });
+            Files.delete(file);
+        } catch (IOException e) {
+            System.err.println("[SledgeMC] Failed to compress " + file.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    private static void pruneSessions() {
+        if (!Files.isDirectory(LOGS_DIR))
+            return;
+
+        List<Path> sessions = new ArrayList<>();
+        try (Stream<Path> dirs = Files.list(LOGS_DIR)) {
+            dirs.filter(Files::isDirectory).forEach(sessions::add);
+        } catch (IOException e) {
+            return;
+        }
+
+        sessions.sort(Comparator.comparing(Path::getFileName));
+        for (int i = 0; i < sessions.size() - (KEPT_SESSIONS - 1); i++) {
+            try (Stream<Path> files = Files.walk(sessions.get(i))) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            } catch (IOException e) {
+                System.err.println("[SledgeMC] Failed to delete old session log: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            segment.close();
+            index.close();
+        } finally {
+            compressor.shutdown();
+            try {
+                compressor.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
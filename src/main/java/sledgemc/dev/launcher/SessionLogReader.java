@@ -0,0 +1,213 @@
+/**
+ * @summary Reads parts of a session log through its sidecar index, such as the last minutes or only the error lines.
+ */
+package sledgemc.dev.launcher;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+public class SessionLogReader {
+
+    private record Record(long millis, int segment, long offset, SessionLog.Level level, boolean continuation) {
+    }
+
+    private final Path sessionDir;
+    private final List<Record> records = new ArrayList<>();
+
+    public SessionLogReader(Path sessionDir) throws IOException {
+        this.sessionDir = sessionDir;
+        byte[] data = Files.readAllBytes(sessionDir.resolve(SessionLog.INDEX_FILE));
+        int complete = data.length - data.length % SessionLog.RECORD_BYTES;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, complete))) {
+            while (in.available() > 0) {
+                long millis = in.readLong();
+                int segment = in.readInt();
+                long offset = in.readLong();
+                int flags = in.readUnsignedByte();
+                records.add(new Record(millis, segment, offset, SessionLog.Level.values()[flags & 0x7F],
+                        (flags & 0x80) != 0));
+            }
+        }
+    }
+
+    /**
+     * Streams every line logged in the last {@code window}, starting at the nearest index record at or before the
+     * window start, so a few earlier lines may be included.
+     */
+    public void readLast(Duration window, Consumer<String> consumer) throws IOException {
+        if (records.isEmpty())
+            return;
+
+        long cutoff = records.get(records.size() - 1).millis() - window.toMillis();
+        int low = 0;
+        int high = records.size() - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (records.get(mid).millis() < cutoff) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        Record start = low > 0 ? records.get(low - 1) : records.get(0);
+        for (int segment = start.segment(); ; segment++) {
+            try (InputStream in = openSegment(segment)) {
+                if (in == null)
+                    break;
+                if (segment == start.segment())
+                    in.skipNBytes(start.offset());
+
+                String line;
+                while ((line = readLine(in)) != null) {
+                    consumer.accept(line);
+                }
+            }
+        }
+    }
+
+    /**
+     * Streams every line at or above the given level, including the exception and stack trace lines that follow it,
+     * even when they continue into the next segment.
+     */
+    public void readLevel(SessionLog.Level minimum, Consumer<String> consumer) throws IOException {
+        try (Cursor cursor = new Cursor()) {
+            for (Record record : records) {
+                if (record.continuation() || record.level().compareTo(minimum) < 0)
+                    continue;
+                if (!cursor.seek(record.segment(), record.offset()))
+                    continue;
+
+                String line = cursor.next();
+                if (line == null)
+                    continue;
+                consumer.accept(line);
+                while ((line = cursor.nextContinuation()) != null) {
+                    consumer.accept(line);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads lines forward through the segments. A line that turned out to start the next record is held back instead
+     * of re-reading it, so no mark/reset limit applies to line length.
+     */
+    private class Cursor implements Closeable {
+
+        private int segment = -1;
+        private InputStream in;
+        private long position;
+        private String pending;
+        private long pendingOffset;
+
+        /**
+         * Positions the cursor at a line start. Returns false if the segment no longer exists.
+         */
+        boolean seek(int targetSegment, long offset) throws IOException {
+            if (targetSegment == segment && pending != null && pendingOffset == offset)
+                return true;
+
+            pending = null;
+            if (targetSegment != segment || in == null || offset < position) {
+                close();
+                segment = targetSegment;
+                position = 0;
+                in = openSegment(targetSegment);
+                if (in == null)
+                    return false;
+            }
+            in.skipNBytes(offset - position);
+            position = offset;
+            return true;
+        }
+
+        String next() throws IOException {
+            if (pending != null) {
+                String line = pending;
+                pending = null;
+                return line;
+            }
+            return read();
+        }
+
+        /**
+         * Returns the next line if it continues the current record, opening the following segment at the end of this
+         * one, or null once a line starts a new record.
+         */
+        String nextContinuation() throws IOException {
+            long start = position;
+            String line = read();
+            if (line == null) {
+                InputStream following = openSegment(segment + 1);
+                if (following == null)
+                    return null;
+                close();
+                in = following;
+                segment++;
+                position = 0;
+                start = 0;
+                line = read();
+                if (line == null)
+                    return null;
+            }
+            if (SessionLog.parseLevel(line) != null) {
+                pending = line;
+                pendingOffset = start;
+                return null;
+            }
+            return line;
+        }
+
+        private String read() throws IOException {
+            if (in == null)
+                return null;
+            String line = readLine(in);
+            if (line != null)
+                position += line.getBytes(StandardCharsets.UTF_8).length + 1;
+            return line;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (in != null) {
+                in.close();
+                in = null;
+            }
+        }
+    }
+
+    private InputStream openSegment(int number) throws IOException {
+        Path plain = SessionLog.segmentPath(sessionDir, number);
+        Path gz = plain.resolveSibling(plain.getFileName() + ".gz");
+        if (Files.exists(plain)) {
+            try {
+                return new BufferedInputStream(Files.newInputStream(plain), 65536);
+            } catch (java.nio.file.NoSuchFileException e) {
+                // compressed and removed between the check and the open
+            }
+        }
+        if (Files.exists(gz)) {
+            return new BufferedInputStream(new GZIPInputStream(Files.newInputStream(gz), 65536), 65536);
+        }
+        return null;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n')
+                return line.toString(StandardCharsets.UTF_8);
+            line.write(b);
+        }
+        return line.size() > 0 ? line.toString(StandardCharsets.UTF_8) : null;
+    }
+}
@@ -24,13 +24,18 @@ import javafx.scene.effect.DropShadow;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class SledgeLauncher extends Application {
 
     private TextField minecraftPathField;
     private TextField modsPathField;
-    private TextArea logArea;
+    private LogView logView;
     private ComboBox<String> versionCombo;
+    private VBox jobsBox;
+    private List<Button> actionButtons;
 
     private LaunchConfig config;
 
@@ -99,14 +104,16 @@ public class SledgeLauncher extends Application {
         logLabel.setFont(Font.font("Inter", FontWeight.BOLD, 9));
         logLabel.setTextFill(Color.web("#444444"));
 
-        logArea = new TextArea();
-        logArea.setEditable(false);
-        logArea.setPrefHeight(100);
-        logArea.setStyle(
-                "-fx-control-inner-background: transparent; -fx-background-color: transparent; -fx-text-fill: #777777; -fx-font-family: 'JetBrains Mono', monospace; -fx-font-size: 10px; -fx-border-width: 0;");
-        logArea.setFocusTraversable(false);
+        logView = new LogView(config.getLogLineLimit());
+        logView.setPrefHeight(100);
+        logView.setStyle(
+                "-fx-control-inner-background: #0d0d0d; -fx-background-color: transparent; -fx-border-width: 0;");
 
-        logsCard.getChildren().addAll(logLabel, logArea);
+        jobsBox = new VBox(4);
+        jobsBox.setVisible(false);
+        jobsBox.setManaged(false);
+
+        logsCard.getChildren().addAll(logLabel, jobsBox, logView);
 
         content.getChildren().addAll(settingsCard, logsCard);
 
@@ -134,12 +141,25 @@ public class SledgeLauncher extends Application {
         exportButton.setOnMouseExited(e -> exportButton.setStyle(
                 "-fx-background-color: transparent; -fx-text-fill: #666666; -fx-font-size: 13px; -fx-font-weight: bold; -fx-border-color: #222222; -fx-border-radius: 8; -fx-background-radius: 8; -fx-cursor: hand;"));
 
-        VBox actions = new VBox(15, installButton, exportButton);
+        Button batchButton = new Button("INSTALL & EXPORT ALL VERSIONS");
+        batchButton.setPrefWidth(240);
+        batchButton.setStyle(
+                "-fx-background-color: transparent; -fx-text-fill: #444444; -fx-font-size: 10px; -fx-font-weight: bold; -fx-cursor: hand;");
+        batchButton.setOnAction(e -> installAndExportAll());
+
+        batchButton.setOnMouseEntered(e -> batchButton.setStyle(
+                "-fx-background-color: transparent; -fx-text-fill: #4a90e2; -fx-font-size: 10px; -fx-font-weight: bold; -fx-cursor: hand;"));
+        batchButton.setOnMouseExited(e -> batchButton.setStyle(
+                "-fx-background-color: transparent; -fx-text-fill: #444444; -fx-font-size: 10px; -fx-font-weight: bold; -fx-cursor: hand;"));
+
+        actionButtons = List.of(installButton, exportButton, batchButton);
+
+        VBox actions = new VBox(15, installButton, exportButton, batchButton);
         actions.setAlignment(Pos.CENTER);
 
         root.getChildren().addAll(header, content, actions);
 
-        Scene scene = new Scene(root, 540, 720);
+        Scene scene = new Scene(root, 540, 760);
         stage.setScene(scene);
         stage.show();
 
@@ -184,7 +204,7 @@ public class SledgeLauncher extends Application {
         versionLabel.setTextFill(Color.web("#555555"));
 
         versionCombo = new ComboBox<>();
-        versionCombo.getItems().addAll("1.21.11", "1.21.8", "1.21.4");
+        versionCombo.getItems().addAll(LaunchConfig.SUPPORTED_VERSIONS);
         versionCombo.setValue("1.21.11");
         versionCombo.setPrefWidth(400);
         versionCombo.setPrefHeight(42);
@@ -258,19 +278,9 @@ public class SledgeLauncher extends Application {
     }
 
     private void installProfile() {
-        String mcPath = minecraftPathField.getText();
         String version = versionCombo.getValue();
-
         log("> Installing profile for " + version);
-
-        try {
-            ProfileInstaller installer = new ProfileInstaller(mcPath, version);
-            installer.install();
-            log("[SUCCESS] Profile 'SledgeMC-" + version + "' created.");
-        } catch (Exception e) {
-            log("[ERROR] " + e.getMessage());
-            e.printStackTrace();
-        }
+        runJobs(List.of(BatchOrchestrator.Job.install(version)));
     }
 
     private void exportPrism() {
@@ -283,25 +293,99 @@ public class SledgeLauncher extends Application {
 
         if (dest != null) {
             log("> Exporting Portable Zip...");
-            try {
-                PrismPackager packager = new PrismPackager(version);
-                packager.createPackage(dest.toPath());
-                log("[SUCCESS] Exported to " + dest.getName());
-            } catch (Exception e) {
-                log("[ERROR] " + e.getMessage());
-                e.printStackTrace();
+            runJobs(List.of(BatchOrchestrator.Job.export(version, dest.toPath())));
+        }
+    }
+
+    private void installAndExportAll() {
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Export Bundles To");
+        File dir = chooser.showDialog(null);
+        if (dir == null)
+            return;
+
+        log("> Installing and exporting " + String.join(", ", LaunchConfig.SUPPORTED_VERSIONS));
+        runJobs(BatchOrchestrator.jobsFor(LaunchConfig.SUPPORTED_VERSIONS, true, dir.toPath()));
+    }
+
+    /**
+     * Runs the jobs off the FX thread, with one progress row per job. The action buttons stay disabled until every
+     * job has finished.
+     */
+    private void runJobs(List<BatchOrchestrator.Job> jobs) {
+        BatchOrchestrator orchestrator = new BatchOrchestrator(minecraftPathField.getText());
+        actionButtons.forEach(button -> button.setDisable(true));
+
+        Map<BatchOrchestrator.Job, JobRow> rows = new HashMap<>();
+        jobsBox.getChildren().clear();
+        for (BatchOrchestrator.Job job : jobs) {
+            JobRow row = new JobRow(job);
+            rows.put(job, row);
+            jobsBox.getChildren().add(row.box);
+        }
+        jobsBox.setVisible(true);
+        jobsBox.setManaged(true);
+
+        orchestrator.run(jobs, status -> Platform.runLater(() -> {
+            rows.get(status.job()).update(status);
+            switch (status.state()) {
+                case DONE -> log("[SUCCESS] " + status.job().describe() + ": " + status.message());
+                case FAILED -> log("[ERROR] " + status.job().describe() + ": " + status.message());
+                default -> {
+                }
+            }
+        })).whenComplete((statuses, error) -> Platform.runLater(() -> {
+            actionButtons.forEach(button -> button.setDisable(false));
+            if (statuses != null && statuses.size() > 1) {
+                long failed = statuses.stream().filter(st -> st.state() == BatchOrchestrator.State.FAILED).count();
+                log("> Batch finished: " + (statuses.size() - failed) + " succeeded, " + failed + " failed");
+            }
+        }));
+    }
+
+    private static final class JobRow {
+        private final HBox box;
+        private final ProgressBar progress = new ProgressBar(0);
+        private final Label state = new Label("queued");
+
+        JobRow(BatchOrchestrator.Job job) {
+            Label name = new Label(job.describe().toUpperCase());
+            name.setFont(Font.font("Inter", FontWeight.BOLD, 9));
+            name.setTextFill(Color.web("#777777"));
+            name.setPrefWidth(130);
+
+            progress.setPrefWidth(160);
+            progress.setPrefHeight(8);
+            progress.setStyle("-fx-accent: #4a90e2; -fx-control-inner-background: #1a1a1a;");
+
+            state.setFont(Font.font("Inter", 9));
+            state.setTextFill(Color.web("#555555"));
+
+            box = new HBox(10, name, progress, state);
+            box.setAlignment(Pos.CENTER_LEFT);
+        }
+
+        void update(BatchOrchestrator.Status status) {
+            switch (status.state()) {
+                case QUEUED -> progress.setProgress(0);
+                case RUNNING -> progress.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+                case DONE, FAILED -> progress.setProgress(1);
             }
+            if (status.state() == BatchOrchestrator.State.FAILED)
+                progress.setStyle("-fx-accent: #e24a4a; -fx-control-inner-background: #1a1a1a;");
+            boolean finished = status.state() == BatchOrchestrator.State.DONE
+                    || status.state() == BatchOrchestrator.State.FAILED;
+            state.setText(status.state().name().toLowerCase() + (finished ? " in " + status.elapsedMs() + "ms" : ""));
         }
     }
 
     private void log(String message) {
-        Platform.runLater(() -> {
-            logArea.appendText(message + "\n");
-        });
+        logView.append(message);
     }
 
     @Override
     public void stop() {
+        logView.stop();
         config.setMinecraftPath(minecraftPathField.getText());
         config.setModsPath(modsPathField.getText());
         config.save();
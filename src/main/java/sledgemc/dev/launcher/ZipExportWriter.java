@@ -0,0 +1,255 @@
+/**
+ * @summary Zip writer for exports that stores already-compressed files, deflates the rest in parallel and streams file data with channel transfers.
+ */
+package sledgemc.dev.launcher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+public class ZipExportWriter {
+
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "jar", "zip", "gz", "xz", "zst", "7z", "png", "jpg", "jpeg", "ogg");
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+    private static final int UTF8_FLAG = 0x0800;
+    private static final long MAX_ZIP32 = 0xFFFFFFFFL;
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final Set<String> names = new HashSet<>();
+
+    /**
+     * Prepared entry data: either an in-memory (possibly deflated) payload or a source file copied verbatim.
+     */
+    private record Prepared(int method, long crc, long size, long compressedSize, byte[] data, Path file) {
+    }
+
+    private record Entry(String name, long modified, CompletableFuture<Prepared> prepared) {
+    }
+
+    public void addBytes(String name, byte[] content) {
+        long now = System.currentTimeMillis();
+        add(name, now, CompletableFuture.supplyAsync(() -> deflate(content)));
+    }
+
+    public void addString(String name, String content) {
+        addBytes(name, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Adds a file under the given name. Entries whose name marks them as already compressed are stored as-is and
+     * copied straight from disk when the archive is written; anything else is deflated in the background. The entry
+     * name decides, since the source may be a content-store object without an extension.
+     */
+    public void addFile(String name, Path file) throws IOException {
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        if (isCompressed(name)) {
+            add(name, modified, CompletableFuture.supplyAsync(() -> stored(file)));
+        } else {
+            add(name, modified, CompletableFuture.supplyAsync(() -> {
+                try {
+                    return deflate(Files.readAllBytes(file));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+    }
+
+    private void add(String name, long modified, CompletableFuture<Prepared> prepared) {
+        if (!names.add(name)) {
+            prepared.cancel(false);
+            throw new IllegalArgumentException("Duplicate zip entry: " + name);
+        }
+        entries.add(new Entry(name, modified, prepared));
+    }
+
+    /**
+     * Writes all entries in the order they were added, then moves the finished archive into place.
+     */
+    public void write(Path destination) throws IOException {
+        AtomicFiles.write(destination, temp -> {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer central = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+                long offset = 0;
+
+                for (Entry entry : entries) {
+                    Prepared prepared = await(entry.prepared());
+                    byte[] name = entry.name().getBytes(StandardCharsets.UTF_8);
+                    int dosTime = dosTime(entry.modified());
+
+                    if (offset > MAX_ZIP32 || prepared.compressedSize() > MAX_ZIP32)
+                        throw new IOException("Export exceeds the 4 GB zip limit: " + entry.name());
+
+                    ByteBuffer local = ByteBuffer.allocate(30 + name.length).order(ByteOrder.LITTLE_ENDIAN);
+                    local.putInt(LOCAL_HEADER);
+                    putCommon(local, prepared, dosTime, name.length);
+                    local.putShort((short) 0);
+                    local.put(name);
+                    local.flip();
+                    writeFully(out, local);
+
+                    if (prepared.file() != null) {
+                        transfer(prepared.file(), out, prepared.size());
+                    } else {
+                        writeFully(out, ByteBuffer.wrap(prepared.data(), 0, (int) prepared.compressedSize()));
+                    }
+
+                    central = ensureCapacity(central, 46 + name.length);
+                    central.putInt(CENTRAL_HEADER);
+                    central.putShort((short) 20);
+                    putCommon(central, prepared, dosTime, name.length);
+                    central.putShort((short) 0);
+                    central.putShort((short) 0);
+                    central.putShort((short) 0);
+                    central.putShort((short) 0);
+                    central.putInt(0);
+                    central.putInt((int) offset);
+                    central.put(name);
+
+                    offset += local.limit() + prepared.compressedSize();
+                }
+
+                if (entries.size() > 0xFFFF || offset > MAX_ZIP32)
+                    throw new IOException("Export exceeds the zip entry or size limits");
+
+                int centralSize = central.position();
+                central = ensureCapacity(central, 22);
+                central.putInt(END_OF_CENTRAL_DIRECTORY);
+                central.putShort((short) 0);
+                central.putShort((short) 0);
+                central.putShort((short) entries.size());
+                central.putShort((short) entries.size());
+                central.putInt(centralSize);
+                central.putInt((int) offset);
+                central.putShort((short) 0);
+                central.flip();
+                writeFully(out, central);
+            }
+        });
+    }
+
+    private static void putCommon(ByteBuffer buffer, Prepared prepared, int dosTime, int nameLength) {
+        buffer.putShort((short) (prepared.method() == STORED ? 10 : 20));
+        buffer.putShort((short) UTF8_FLAG);
+        buffer.putShort((short) prepared.method());
+        buffer.putInt(dosTime);
+        buffer.putInt((int) prepared.crc());
+        buffer.putInt((int) prepared.compressedSize());
+        buffer.putInt((int) prepared.size());
+        buffer.putShort((short) nameLength);
+    }
+
+    private static Prepared deflate(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, content.length + content.length / 1000 + 64)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length)
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+
+            if (length >= content.length) {
+                return new Prepared(STORED, crc.getValue(), content.length, content.length, content, null);
+            }
+            return new Prepared(DEFLATED, crc.getValue(), content.length, length, buffer, null);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static Prepared stored(Path file) {
+        CRC32 crc = new CRC32();
+        long size = 0;
+        byte[] buffer = new byte[65536];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                size += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Prepared(STORED, crc.getValue(), size, size, null, file);
+    }
+
+    private static void transfer(Path file, FileChannel out, long size) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (in.size() != size)
+                throw new IOException("File changed while exporting: " + file);
+
+            long position = 0;
+            while (position < size) {
+                long sent = in.transferTo(position, size - position, out);
+                if (sent <= 0)
+                    throw new IOException("Failed to copy " + file);
+                position += sent;
+            }
+        }
+    }
+
+    private static Prepared await(CompletableFuture<Prepared> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io)
+                throw io.getCause();
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static boolean isCompressed(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && COMPRESSED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase());
+    }
+
+    private static int dosTime(long millis) {
+        LocalDateTime time = LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+        if (time.getYear() < 1980)
+            return (1 << 21) | (1 << 16);
+        return (time.getYear() - 1980) << 25 | time.getMonthValue() << 21 | time.getDayOfMonth() << 16
+                | time.getHour() << 11 | time.getMinute() << 5 | time.getSecond() >> 1;
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int extra) {
+        if (buffer.remaining() >= extra)
+            return buffer;
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + extra))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+}
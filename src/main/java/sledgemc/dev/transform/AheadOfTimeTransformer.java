@@ -0,0 +1,142 @@
+/**
+ * @summary Runs the registered transformer chain over a whole game jar in parallel and caches the pre-patched result.
+ */
+package sledgemc.dev.transform;
+
+import sledgemc.dev.launcher.AtomicFiles;
+import sledgemc.dev.launcher.FileHashes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+public class AheadOfTimeTransformer {
+
+    private final TransformerIndex index;
+    private final TransformService service;
+    private final Path cacheDir;
+
+    AheadOfTimeTransformer(TransformService service, TransformerIndex index, Path cacheDir) {
+        this.service = service;
+        this.index = index;
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * Returns a jar holding every entry of the input jar with all classes already run through the transformer chain.
+     * The result is cached under a key made of the input jar's SHA-256 and the fingerprint of the transformer list, so
+     * it is only rebuilt when either changes. Transformers must be safe to call from several threads at once.
+     */
+    public Path pretransform(Path inputJar) throws IOException {
+        String jarHash = FileHashes.sha256(inputJar);
+        String key = jarHash.substring(0, 16) + "-" + transformerFingerprint().substring(0, 16);
+        String baseName = inputJar.getFileName().toString().replaceFirst("\\.jar$", "");
+        Path outputJar = cacheDir.resolve(baseName + "-" + key + ".jar");
+
+        if (!Files.exists(outputJar)) {
+            long start = System.nanoTime();
+            Files.createDirectories(cacheDir);
+            build(inputJar, outputJar);
+            System.out.println("[SledgeMC] Pre-transformed " + inputJar.getFileName() + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + "ms");
+        } else {
+            System.out.println("[SledgeMC] Using pre-transformed jar: " + outputJar.getFileName());
+        }
+
+        return outputJar;
+    }
+
+    /**
+     * Hash of every transformer's name, priority and version in chain order.
+     */
+    public String transformerFingerprint() {
+        return index.fingerprint();
+    }
+
+    private void build(Path inputJar, Path outputJar) throws IOException {
+        try (ZipFile zip = new ZipFile(inputJar.toFile())) {
+            List<ZipEntry> entries = new ArrayList<>();
+            for (Enumeration<? extends ZipEntry> e = zip.entries(); e.hasMoreElements();) {
+                ZipEntry entry = e.nextElement();
+                if (!entry.isDirectory() && !isSignatureFile(entry.getName())) {
+                    entries.add(entry);
+                }
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+            List<byte[]> contents;
+            try {
+                contents = pool.submit(() -> entries.parallelStream()
+                        .map(entry -> process(zip, entry))
+                        .toList()).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while pre-transforming " + inputJar, e);
+            } catch (ExecutionException e) {
+                throw new IOException("Failed to pre-transform " + inputJar, e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+
+            AtomicFiles.write(outputJar, temp -> {
+                try (OutputStream fileOut = Files.newOutputStream(temp);
+                        ZipOutputStream out = new ZipOutputStream(fileOut)) {
+                    for (int i = 0; i < entries.size(); i++) {
+                        ZipEntry source = entries.get(i);
+                        ZipEntry target = new ZipEntry(source.getName());
+                        target.setTime(source.getTime());
+                        out.putNextEntry(target);
+                        out.write(contents.get(i));
+                        out.closeEntry();
+                    }
+                }
+            });
+        }
+    }
+
+    private byte[] process(ZipFile zip, ZipEntry entry) {
+        byte[] bytes;
+        try (InputStream in = zip.getInputStream(entry)) {
+            bytes = in.readAllBytes();
+        } catch (IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+
+        String name = entry.getName();
+        if (!name.endsWith(".class") || name.startsWith("META-INF/") || name.endsWith("module-info.class")) {
+            return bytes;
+        }
+
+        String className = name.substring(0, name.length() - ".class".length()).replace('/', '.');
+        return service.runChain(index, className, bytes);
+    }
+
+    private static boolean isSignatureFile(String name) {
+        if (!name.startsWith("META-INF/") || name.indexOf('/', "META-INF/".length()) >= 0)
+            return false;
+        return name.endsWith(".SF") || name.endsWith(".RSA") || name.endsWith(".DSA") || name.endsWith(".EC");
+    }
+
+    /**
+     * Lists the classes contained in a pre-transformed jar, in dotted form.
+     */
+    static Set<String> listClasses(Path jar) throws IOException {
+        Set<String> classes = new HashSet<>();
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            for (Enumeration<? extends ZipEntry> e = zip.entries(); e.hasMoreElements();) {
+                String name = e.nextElement().getName();
+                if (name.endsWith(".class") && !name.startsWith("META-INF/")) {
+                    classes.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+                }
+            }
+        }
+        return classes;
+    }
+}
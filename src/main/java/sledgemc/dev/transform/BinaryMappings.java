@@ -0,0 +1,571 @@
+/**
+ * @summary Compact precompiled mapping table that is written once from a parsed mapping tree and memory-mapped on later launches.
+ */
+package sledgemc.dev.transform;
+
+import net.fabricmc.mappingio.tree.MappingTree;
+import sledgemc.dev.launcher.AtomicFiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * File layout (all integers big-endian):
+ *
+ * <pre>
+ * header   magic, format version, namespace string id, 32 byte SHA-256 of the source mapping file
+ * strings  count, (count + 1) byte offsets, UTF-8 data
+ * classes  count, then per class sorted by source name: source, target, method start, method count, field start,
+ *          field count, internal source name hash, dotted source name hash, target name hash
+ * methods  count, then per method grouped by owner and sorted by name hash, name and descriptor: name hash, name,
+ *          descriptor, target
+ * fields   count, then per field, laid out like methods
+ * owners   power of two size, then open-addressed slots keyed by internal name hash holding class index + 1
+ *          (0 marks an empty slot)
+ * dotted   the same owner table keyed by the dotted name hash
+ * reverse  the same owner table keyed by the target name hash, used to unmap classes
+ * keys     power of two size, then open-addressed slots of (key hash, method index + 1, class index) keyed by the
+ *          combined hash of owner, name and descriptor
+ * </pre>
+ *
+ * Names are string ids and hashes are {@link String#hashCode()} of the internal-form name. The integer tables are
+ * bulk-copied onto the heap when the file is opened, while the string data stays memory-mapped and is decoded lazily
+ * and cached per id. A lookup probes the owner table matching the form of the owner name (internal or dotted), then
+ * binary searches the owner's member range by name hash, so the only string comparisons are the final equality checks.
+ * Both owner forms resolve without building a normalized copy, and together with the string caches this makes repeated
+ * lookups allocation-free. Method lookups with an internal owner and a descriptor skip the owner table and probe the
+ * key table instead, comparing against a single cached owner, name and descriptor key, since they are the hottest
+ * lookups during mixin application.
+ */
+public final class BinaryMappings {
+
+    public static final int MAGIC = 0x534C4D42;
+    public static final int FORMAT_VERSION = 5;
+
+    private static final int HASH_LENGTH = 32;
+    private static final int CLASS_STRIDE = 9;
+    private static final int MEMBER_STRIDE = 4;
+    private static final int KEY_STRIDE = 3;
+
+    private final ByteBuffer buffer;
+    private final String namespace;
+    private final byte[] sourceHash;
+    private final int stringOffsets;
+    private final int stringData;
+    private final String[] strings;
+    private final String[] dottedStrings;
+    private final String[] methodKeys;
+    private final int[] classTable;
+    private final int[] methodTable;
+    private final int[] fieldTable;
+    private final int[] ownerTable;
+    private final int[] dottedOwnerTable;
+    private final int[] reverseOwnerTable;
+    private final int ownerMask;
+    private final int[] keyTable;
+    private final int keyMask;
+
+    private BinaryMappings(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a SledgeMC binary mapping file");
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported binary mapping format: " + buffer.getInt(4));
+        }
+
+        int namespaceId = buffer.getInt(8);
+        this.sourceHash = new byte[HASH_LENGTH];
+        buffer.get(12, sourceHash);
+
+        int pos = 12 + HASH_LENGTH;
+        int stringCount = buffer.getInt(pos);
+        this.stringOffsets = pos + 4;
+        this.stringData = stringOffsets + (stringCount + 1) * 4;
+        this.strings = new String[stringCount];
+        this.dottedStrings = new String[stringCount];
+        pos = stringData + buffer.getInt(stringOffsets + stringCount * 4);
+
+        this.classTable = readInts(buffer, pos + 4, buffer.getInt(pos) * CLASS_STRIDE);
+        pos += 4 + classTable.length * 4;
+
+        this.methodTable = readInts(buffer, pos + 4, buffer.getInt(pos) * MEMBER_STRIDE);
+        this.methodKeys = new String[methodTable.length / MEMBER_STRIDE];
+        pos += 4 + methodTable.length * 4;
+
+        this.fieldTable = readInts(buffer, pos + 4, buffer.getInt(pos) * MEMBER_STRIDE);
+        pos += 4 + fieldTable.length * 4;
+
+        this.ownerTable = readInts(buffer, pos + 4, buffer.getInt(pos));
+        this.ownerMask = ownerTable.length - 1;
+        pos += 4 + ownerTable.length * 4;
+
+        this.dottedOwnerTable = readInts(buffer, pos + 4, buffer.getInt(pos));
+        pos += 4 + dottedOwnerTable.length * 4;
+
+        this.reverseOwnerTable = readInts(buffer, pos + 4, buffer.getInt(pos));
+        pos += 4 + reverseOwnerTable.length * 4;
+
+        int keySlots = buffer.getInt(pos);
+        this.keyTable = readInts(buffer, pos + 4, keySlots * KEY_STRIDE);
+        this.keyMask = keySlots - 1;
+        pos += 4 + keyTable.length * 4;
+
+        if (pos != buffer.limit() || Integer.bitCount(ownerTable.length) != 1 || Integer.bitCount(keySlots) != 1
+                || dottedOwnerTable.length != ownerTable.length || reverseOwnerTable.length != ownerTable.length) {
+            throw new IOException("Corrupt binary mapping file");
+        }
+
+        this.namespace = string(namespaceId);
+    }
+
+    /**
+     * Memory-maps a previously written file. Returns null if the file is missing, was written by another format
+     * version, or was built from a different source file or namespace.
+     */
+    public static BinaryMappings open(Path file, byte[] expectedHash, String expectedNamespace) {
+        if (!Files.exists(file))
+            return null;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            BinaryMappings mappings = new BinaryMappings(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            if (!Arrays.equals(mappings.sourceHash, expectedHash) || !mappings.namespace.equals(expectedNamespace)) {
+                return null;
+            }
+            return mappings;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[SledgeMC] Ignoring binary mappings " + file.getFileName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Serializes the source to target namespace view of a mapping tree. The bytes can be wrapped directly with
+     * {@link #wrap(byte[])} and written to disk with {@link #write(byte[], Path)}.
+     */
+    public static byte[] compile(MappingTree tree, int srcId, int dstId, String namespace, byte[] sourceHash)
+            throws IOException {
+        List<ClassEntry> classes = new ArrayList<>();
+
+        for (MappingTree.ClassMapping classMapping : tree.getClasses()) {
+            String srcName = classMapping.getName(srcId);
+            String dstName = classMapping.getName(dstId);
+            if (srcName == null || dstName == null)
+                continue;
+
+            ClassEntry entry = new ClassEntry(srcName, dstName);
+            for (MappingTree.MethodMapping method : classMapping.getMethods()) {
+                String mSrc = method.getName(srcId);
+                String mDst = method.getName(dstId);
+                String mDesc = method.getDesc(srcId);
+                if (mSrc != null && mDst != null) {
+                    entry.methods.add(new MemberEntry(mSrc, mDesc != null ? mDesc : "", mDst));
+                }
+            }
+
+            for (MappingTree.FieldMapping field : classMapping.getFields()) {
+                String fSrc = field.getName(srcId);
+                String fDst = field.getName(dstId);
+                String fDesc = field.getDesc(srcId);
+                if (fSrc != null && fDst != null) {
+                    entry.fields.add(new MemberEntry(fSrc, fDesc != null ? fDesc : "", fDst));
+                }
+            }
+            classes.add(entry);
+        }
+
+        classes.sort(Comparator.comparing((ClassEntry c) -> c.srcName));
+
+        Map<String, Integer> stringIds = new HashMap<>();
+        List<String> stringList = new ArrayList<>();
+        int namespaceId = intern(namespace, stringIds, stringList);
+
+        ByteArrayOutputStream tables = new ByteArrayOutputStream();
+        DataOutputStream classOut = new DataOutputStream(tables);
+        ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+        DataOutputStream methodOut = new DataOutputStream(methodBytes);
+        ByteArrayOutputStream fieldBytes = new ByteArrayOutputStream();
+        DataOutputStream fieldOut = new DataOutputStream(fieldBytes);
+
+        int methodIndex = 0;
+        int fieldIndex = 0;
+        classOut.writeInt(classes.size());
+        for (ClassEntry entry : classes) {
+            entry.methods.sort(MemberEntry.ORDER);
+            entry.fields.sort(MemberEntry.ORDER);
+
+            classOut.writeInt(intern(entry.srcName, stringIds, stringList));
+            classOut.writeInt(intern(entry.dstName, stringIds, stringList));
+            classOut.writeInt(methodIndex);
+            classOut.writeInt(entry.methods.size());
+            classOut.writeInt(fieldIndex);
+            classOut.writeInt(entry.fields.size());
+            classOut.writeInt(entry.srcName.hashCode());
+            classOut.writeInt(entry.srcName.replace('/', '.').hashCode());
+            classOut.writeInt(entry.dstName.hashCode());
+
+            methodIndex += writeMembers(entry.methods, methodOut, stringIds, stringList);
+            fieldIndex += writeMembers(entry.fields, fieldOut, stringIds, stringList);
+        }
+
+        classOut.writeInt(methodIndex);
+        methodOut.flush();
+        methodBytes.writeTo(classOut);
+        classOut.writeInt(fieldIndex);
+        fieldOut.flush();
+        fieldBytes.writeTo(classOut);
+
+        int ownerSlots = Integer.highestOneBit(Math.max(classes.size(), 1) * 2) * 2;
+        writeOwnerTable(classes, ownerSlots, c -> c.srcName, classOut);
+        writeOwnerTable(classes, ownerSlots, c -> c.srcName.replace('/', '.'), classOut);
+        writeOwnerTable(classes, ownerSlots, c -> c.dstName, classOut);
+        writeKeyTable(classes, methodIndex, classOut);
+        classOut.flush();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(namespaceId);
+        data.write(sourceHash, 0, HASH_LENGTH);
+
+        byte[][] encoded = new byte[stringList.size()][];
+        data.writeInt(stringList.size());
+        int offset = 0;
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = stringList.get(i).getBytes(StandardCharsets.UTF_8);
+            data.writeInt(offset);
+            offset += encoded[i].length;
+        }
+        data.writeInt(offset);
+        for (byte[] bytes : encoded) {
+            data.write(bytes);
+        }
+
+        tables.writeTo(data);
+        data.flush();
+        return out.toByteArray();
+    }
+
+    public static BinaryMappings wrap(byte[] bytes) throws IOException {
+        return new BinaryMappings(ByteBuffer.wrap(bytes));
+    }
+
+    public static void write(byte[] bytes, Path file) throws IOException {
+        AtomicFiles.write(file, bytes);
+    }
+
+    private static void writeOwnerTable(List<ClassEntry> classes, int size, Function<ClassEntry, String> key,
+            DataOutputStream out) throws IOException {
+        int[] owners = new int[size];
+        for (int i = 0; i < classes.size(); i++) {
+            int hash = key.apply(classes.get(i)).hashCode();
+            int slot = spread(hash) & (size - 1);
+            while (owners[slot] != 0) {
+                slot = (slot + 1) & (size - 1);
+            }
+            owners[slot] = i + 1;
+        }
+
+        out.writeInt(size);
+        for (int owner : owners) {
+            out.writeInt(owner);
+        }
+    }
+
+    private static void writeKeyTable(List<ClassEntry> classes, int methodCount, DataOutputStream out)
+            throws IOException {
+        int size = Integer.highestOneBit(Math.max(methodCount, 1) * 2) * 2;
+        int[] slots = new int[size * KEY_STRIDE];
+        int methodIndex = 0;
+        for (int classIndex = 0; classIndex < classes.size(); classIndex++) {
+            ClassEntry entry = classes.get(classIndex);
+            for (MemberEntry method : entry.methods) {
+                int hash = keyHash(entry.srcName.hashCode(), method.name.hashCode(), method.desc.hashCode());
+                int slot = spread(hash) & (size - 1);
+                while (slots[slot * KEY_STRIDE + 1] != 0) {
+                    slot = (slot + 1) & (size - 1);
+                }
+                slots[slot * KEY_STRIDE] = hash;
+                slots[slot * KEY_STRIDE + 1] = ++methodIndex;
+                slots[slot * KEY_STRIDE + 2] = classIndex;
+            }
+        }
+
+        out.writeInt(size);
+        for (int value : slots) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int writeMembers(List<MemberEntry> members, DataOutputStream out, Map<String, Integer> stringIds,
+            List<String> stringList) throws IOException {
+        for (MemberEntry member : members) {
+            out.writeInt(member.name.hashCode());
+            out.writeInt(intern(member.name, stringIds, stringList));
+            out.writeInt(intern(member.desc, stringIds, stringList));
+            out.writeInt(intern(member.target, stringIds, stringList));
+        }
+        return members.size();
+    }
+
+    private static int intern(String value, Map<String, Integer> ids, List<String> list) {
+        return ids.computeIfAbsent(value, v -> {
+            list.add(v);
+            return list.size() - 1;
+        });
+    }
+
+    /**
+     * Maps a class name given in either internal or dotted form, returning the target in internal form.
+     */
+    public String mapClass(String name) {
+        int index = findClass(name);
+        return index < 0 ? null : string(classInt(index, 1));
+    }
+
+    /**
+     * Same as {@link #mapClass(String)} but returns the target in dotted form.
+     */
+    public String mapClassDotted(String name) {
+        int index = findClass(name);
+        return index < 0 ? null : dottedString(classInt(index, 1));
+    }
+
+    public String mapMethod(String owner, String name, String desc) {
+        if (desc != null && owner.indexOf('.') < 0) {
+            int member = findMethodKey(owner, name, desc);
+            return member < 0 ? null : string(memberInt(methodTable, member, 3));
+        }
+
+        int index = findClass(owner);
+        if (index < 0)
+            return null;
+
+        int member = findMember(methodTable, classInt(index, 2), classInt(index, 3), name, desc);
+        return member < 0 ? null : string(memberInt(methodTable, member, 3));
+    }
+
+    /**
+     * Maps a target (official) class name in internal form back to its source name, or returns null if unknown.
+     */
+    public String unmapClass(String internalName) {
+        int hash = internalName.hashCode();
+        int slot = spread(hash) & ownerMask;
+        int entry;
+        while ((entry = reverseOwnerTable[slot]) != 0) {
+            int index = entry - 1;
+            if (classInt(index, 8) == hash && string(classInt(index, 1)).equals(internalName)) {
+                return string(classInt(index, 0));
+            }
+            slot = (slot + 1) & ownerMask;
+        }
+        return null;
+    }
+
+    /**
+     * Maps a field, preferring an exact descriptor match and falling back to the name alone when the descriptor is
+     * null or the mapping file recorded a different one.
+     */
+    public String mapField(String owner, String name, String desc) {
+        int index = findClass(owner);
+        if (index < 0)
+            return null;
+
+        int start = classInt(index, 4);
+        int count = classInt(index, 5);
+        int member = desc != null ? findMember(fieldTable, start, count, name, desc) : -1;
+        if (member < 0) {
+            member = findMember(fieldTable, start, count, name, null);
+        }
+        return member < 0 ? null : string(memberInt(fieldTable, member, 3));
+    }
+
+    public String mapField(String owner, String name) {
+        return mapField(owner, name, null);
+    }
+
+    public int getClassCount() {
+        return classTable.length / CLASS_STRIDE;
+    }
+
+    public int getMethodCount() {
+        return methodTable.length / MEMBER_STRIDE;
+    }
+
+    public int getFieldCount() {
+        return fieldTable.length / MEMBER_STRIDE;
+    }
+
+    /**
+     * Owner names containing '/' are looked up in internal form, anything else (including names without a package) in
+     * dotted form.
+     */
+    private int findClass(String name) {
+        boolean dotted = name.indexOf('/') < 0;
+        int[] table = dotted ? dottedOwnerTable : ownerTable;
+        int hash = name.hashCode();
+
+        int slot = spread(hash) & ownerMask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            int index = entry - 1;
+            if (classInt(index, dotted ? 7 : 6) == hash) {
+                int id = classInt(index, 0);
+                if ((dotted ? dottedString(id) : string(id)).equals(name)) {
+                    return index;
+                }
+            }
+            slot = (slot + 1) & ownerMask;
+        }
+        return -1;
+    }
+
+    /**
+     * Probes the key table for an internal owner name, method name and descriptor. Slots whose hash matches are
+     * confirmed against the method's cached key, so a hit costs one string comparison.
+     */
+    private int findMethodKey(String owner, String name, String desc) {
+        int hash = keyHash(owner.hashCode(), name.hashCode(), desc.hashCode());
+        int slot = spread(hash) & keyMask;
+        int entry;
+        while ((entry = keyTable[slot * KEY_STRIDE + 1]) != 0) {
+            if (keyTable[slot * KEY_STRIDE] == hash) {
+                String key = methodKey(entry - 1, keyTable[slot * KEY_STRIDE + 2]);
+                int nameAt = owner.length() + 1;
+                int descAt = nameAt + name.length();
+                if (key.length() == descAt + desc.length() && key.startsWith(owner) && key.charAt(owner.length()) == '.'
+                        && key.startsWith(name, nameAt) && key.startsWith(desc, descAt)) {
+                    return entry - 1;
+                }
+            }
+            slot = (slot + 1) & keyMask;
+        }
+        return -1;
+    }
+
+    /**
+     * The owner, name and descriptor of a method joined as {@code owner.name(desc)}. Internal owner names cannot contain
+     * a dot, so the key is unambiguous.
+     */
+    private String methodKey(int method, int classIndex) {
+        String key = methodKeys[method];
+        if (key == null) {
+            key = string(classInt(classIndex, 0)) + "." + string(memberInt(methodTable, method, 1))
+                    + string(memberInt(methodTable, method, 2));
+            methodKeys[method] = key;
+        }
+        return key;
+    }
+
+    private static int keyHash(int ownerHash, int nameHash, int descHash) {
+        return (ownerHash * 31 + nameHash) * 31 + descHash;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Finds a member in a range ordered by name hash. A null descriptor matches the first member with the given name.
+     */
+    private int findMember(int[] table, int start, int count, String name, String desc) {
+        if (count > 0 && strings[memberInt(table, start, 1)] == null) {
+            decodeMembers(table, start, count);
+        }
+
+        int hash = name.hashCode();
+        int low = start;
+        int high = start + count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (memberInt(table, mid, 0) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        for (int i = low; i < start + count && memberInt(table, i, 0) == hash; i++) {
+            if (string(memberInt(table, i, 1)).equals(name)
+                    && (desc == null || string(memberInt(table, i, 2)).equals(desc))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes an owner's member strings in one pass the first time the owner is searched, which keeps them next to
+     * each other on the heap for the lookups that follow.
+     */
+    private void decodeMembers(int[] table, int start, int count) {
+        for (int i = start; i < start + count; i++) {
+            string(memberInt(table, i, 1));
+            string(memberInt(table, i, 2));
+            string(memberInt(table, i, 3));
+        }
+    }
+
+    private int classInt(int index, int column) {
+        return classTable[index * CLASS_STRIDE + column];
+    }
+
+    private static int memberInt(int[] table, int index, int column) {
+        return table[index * MEMBER_STRIDE + column];
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int offset, int count) {
+        int[] values = new int[count];
+        buffer.slice(offset, count * 4).asIntBuffer().get(values);
+        return values;
+    }
+
+    private String string(int id) {
+        String value = strings[id];
+        if (value == null) {
+            int start = buffer.getInt(stringOffsets + id * 4);
+            int end = buffer.getInt(stringOffsets + (id + 1) * 4);
+            byte[] bytes = new byte[end - start];
+            buffer.get(stringData + start, bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[id] = value;
+        }
+        return value;
+    }
+
+    private String dottedString(int id) {
+        String value = dottedStrings[id];
+        if (value == null) {
+            value = string(id).replace('/', '.');
+            dottedStrings[id] = value;
+        }
+        return value;
+    }
+
+    private static final class ClassEntry {
+        final String srcName;
+        final String dstName;
+        final List<MemberEntry> methods = new ArrayList<>();
+        final List<MemberEntry> fields = new ArrayList<>();
+
+        ClassEntry(String srcName, String dstName) {
+            this.srcName = srcName;
+            this.dstName = dstName;
+        }
+    }
+
+    private record MemberEntry(String name, String desc, String target) {
+        static final Comparator<MemberEntry> ORDER = Comparator.comparingInt((MemberEntry m) -> m.name.hashCode())
+                .thenComparing(MemberEntry::name)
+                .thenComparing(MemberEntry::desc);
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * @summary Holds a class moving through the transformer chain, switching lazily between its bytes and a shared ClassNode.
+ */
+package sledgemc.dev.transform;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.ClassNode;
+
+final class ClassChain {
+
+    private final String className;
+    private byte[] bytes;
+    private ClassReader reader;
+    private ClassNode node;
+    private boolean dirty;
+    private int writerFlags;
+
+    ClassChain(String className, byte[] bytes) {
+        this.className = className;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Current size of the class in bytes, as last serialized.
+     */
+    int size() {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    /**
+     * Whether the shared node has changes not yet written back to bytes.
+     */
+    boolean hasPendingWrite() {
+        return node != null && dirty;
+    }
+
+    /**
+     * Whether running the transformer first needs the bytes parsed into the shared node.
+     */
+    boolean needsParse(ClassTransformer transformer) {
+        return transformer instanceof ClassNodeTransformer && node == null;
+    }
+
+    void parse() {
+        node();
+    }
+
+    void apply(ClassTransformer transformer) {
+        if (transformer instanceof ClassNodeTransformer nodeTransformer) {
+            ClassNode current = node();
+            if (nodeTransformer.transform(className, current)) {
+                dirty = true;
+                writerFlags |= nodeTransformer.getWriterFlags();
+            }
+        } else {
+            bytes = transformer.transform(className, bytes());
+        }
+    }
+
+    /**
+     * Returns the class as bytes, writing the shared node back first if a node transformer changed it.
+     */
+    byte[] bytes() {
+        if (node != null) {
+            if (dirty) {
+                ClassWriter writer = new ClassWriter(reader, writerFlags);
+                node.accept(writer);
+                bytes = writer.toByteArray();
+            }
+            node = null;
+            reader = null;
+            dirty = false;
+            writerFlags = 0;
+        }
+        return bytes;
+    }
+
+    private ClassNode node() {
+        if (node == null) {
+            reader = new ClassReader(bytes);
+            node = new ClassNode();
+            reader.accept(node, 0);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * @summary Tree-based transformer contract that edits a ClassNode shared with the other node transformers in the chain.
+ */
+package sledgemc.dev.transform;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.ClassNode;
+
+public interface ClassNodeTransformer extends ClassTransformer {
+
+    /**
+     * Edits the class in place and returns whether anything was changed. Consecutive node transformers in a chain
+     * share a single parse, and the class is only written back once they are done or a byte[] transformer follows.
+     */
+    boolean transform(String className, ClassNode node);
+
+    /**
+     * {@link ClassWriter} flags this transformer needs when the shared node is written back; the flags of every
+     * transformer that changed the node are combined. The default recomputes stack and local sizes only. Transformers
+     * that add branches must keep the node's frames valid themselves or opt in to
+     * {@link ClassWriter#COMPUTE_FRAMES}, which loads the classes whose common supertypes it needs through
+     * {@code Class.forName} and can therefore fail with circularity or linkage errors while game classes are loading.
+     */
+    default int getWriterFlags() {
+        return ClassWriter.COMPUTE_MAXS;
+    }
+
+    /**
+     * Standalone fallback used when the transformer is invoked outside {@link TransformService}.
+     */
+    @Override
+    default byte[] transform(String className, byte[] classBytes) {
+        ClassReader reader = new ClassReader(classBytes);
+        ClassNode node = new ClassNode();
+        reader.accept(node, 0);
+        if (!transform(className, node))
+            return classBytes;
+
+        ClassWriter writer = new ClassWriter(reader, getWriterFlags());
+        node.accept(writer);
+        return writer.toByteArray();
+    }
+}
@@ -4,8 +4,14 @@
  */
 package sledgemc.dev.transform;
 
+import java.util.Set;
+
 public interface ClassTransformer {
 
+    /**
+     * Class names passed to this and {@link #transform} are always in dotted form, e.g.
+     * {@code net.minecraft.client.Main}.
+     */
     boolean shouldTransform(String className);
 
     byte[] transform(String className, byte[] classBytes);
@@ -14,7 +20,33 @@ public interface ClassTransformer {
         return getClass().getSimpleName();
     }
 
+    /**
+     * Lower values run first. Transformers with equal priority run in registration order.
+     */
     default int getPriority() {
         return 1000;
     }
+
+    /**
+     * Fully qualified names of the classes this transformer targets. When this and {@link #getTargetPackages()} are
+     * both empty, {@link #shouldTransform} is consulted for every class.
+     */
+    default Set<String> getTargetClasses() {
+        return Set.of();
+    }
+
+    /**
+     * Package prefixes this transformer targets, e.g. {@code net.minecraft.client}; subpackages are included.
+     */
+    default Set<String> getTargetPackages() {
+        return Set.of();
+    }
+
+    /**
+     * Identifies the transformer's behaviour for caching. Bump it whenever the output for the same input changes,
+     * so ahead-of-time transformed jars built by an older version are discarded.
+     */
+    default String getVersion() {
+        return "1";
+    }
 }
@@ -4,21 +4,32 @@
  */
 package sledgemc.dev.transform;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import net.fabricmc.mappingio.MappingReader;
+import net.fabricmc.mappingio.format.MappingFormat;
 import net.fabricmc.mappingio.tree.MappingTree;
 import net.fabricmc.mappingio.tree.MemoryMappingTree;
+import sledgemc.dev.launcher.FileHashes;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.Map;
 
 public class MappingService {
 
     private final Path mappingsDir;
-    private final Map<String, String> classMap = new HashMap<>();
-    private final Map<String, String> methodMap = new HashMap<>();
-    private final Map<String, String> fieldMap = new HashMap<>();
+    private static final int DESC_CACHE_SIZE = 16384;
+
+    private volatile BinaryMappings mappings;
+    private final LoadingCache<String, String> mappedDescs = CacheBuilder.newBuilder()
+            .maximumSize(DESC_CACHE_SIZE)
+            .build(CacheLoader.from(desc -> remapDesc(desc, false)));
+    private final LoadingCache<String, String> unmappedDescs = CacheBuilder.newBuilder()
+            .maximumSize(DESC_CACHE_SIZE)
+            .build(CacheLoader.from(desc -> remapDesc(desc, true)));
 
     private String activeNamespace = "intermediary";
 
@@ -50,73 +61,148 @@ public class MappingService {
                 }
             }
 
-            System.out.println("[SledgeMC] Parsing mappings: " + mappingFile.getFileName());
-            MemoryMappingTree tree = new MemoryMappingTree();
-
-            MappingReader.read(mappingFile, tree);
+            byte[] sourceHash = FileHashes.digest(mappingFile, FileHashes.SHA256);
+            Path binaryFile = mappingFile.resolveSibling(mappingFile.getFileName() + ".bin");
+            BinaryMappings loaded = BinaryMappings.open(binaryFile, sourceHash, activeNamespace);
 
-            int srcId;
-            int dstId = tree.getNamespaceId("official");
-
-            if (activeNamespace.equals("mojang")) {
-                srcId = tree.getNamespaceId("named");
-                if (srcId == -1)
-                    srcId = 0;
+            if (loaded != null) {
+                System.out.println("[SledgeMC] Using precompiled mappings: " + binaryFile.getFileName());
             } else {
-                srcId = tree.getNamespaceId("intermediary");
-                if (srcId == -1)
-                    srcId = 0;
+                loaded = compileMappings(mappingFile, binaryFile, sourceHash);
             }
 
-            if (dstId == -1)
-                dstId = 1;
-
-            for (MappingTree.ClassMapping classMapping : tree.getClasses()) {
-                String srcName = classMapping.getName(srcId);
-                String dstName = classMapping.getName(dstId);
-
-                if (srcName != null && dstName != null) {
-                    classMap.put(srcName, dstName);
-
-                    for (MappingTree.MethodMapping method : classMapping.getMethods()) {
-                        String mSrc = method.getName(srcId);
-                        String mDst = method.getName(dstId);
-                        String mDesc = method.getDesc(srcId);
-                        if (mSrc != null && mDst != null) {
-                            methodMap.put(srcName + "." + mSrc + (mDesc != null ? mDesc : ""), mDst);
-                        }
-                    }
-
-                    for (MappingTree.FieldMapping field : classMapping.getFields()) {
-                        String fSrc = field.getName(srcId);
-                        String fDst = field.getName(dstId);
-                        if (fSrc != null && fDst != null) {
-                            fieldMap.put(srcName + "." + fSrc, fDst);
-                        }
-                    }
-                }
-            }
-
-            System.out.println("[SledgeMC] Loaded " + classMap.size() + " " + activeNamespace + " class mappings");
+            this.mappings = loaded;
+            mappedDescs.invalidateAll();
+            unmappedDescs.invalidateAll();
+            System.out.println("[SledgeMC] Loaded " + loaded.getClassCount() + " " + activeNamespace + " class mappings");
 
         } catch (Exception e) {
             System.err.println("[SledgeMC] Failed to load mappings: " + e.getMessage());
         }
     }
 
+    private BinaryMappings compileMappings(Path mappingFile, Path binaryFile, byte[] sourceHash) throws IOException {
+        System.out.println("[SledgeMC] Parsing mappings: " + mappingFile.getFileName());
+        MemoryMappingTree tree = new MemoryMappingTree();
+
+        MappingFormat format = MappingReader.detectFormat(mappingFile);
+        MappingReader.read(mappingFile, format, tree);
+
+        int srcId;
+        int dstId;
+        if (format == MappingFormat.PROGUARD_FILE) {
+            // Mojang's ProGuard files are read as named (source) to obfuscated (target 0)
+            srcId = MappingTree.SRC_NAMESPACE_ID;
+            dstId = 0;
+        } else {
+            String srcNamespace = activeNamespace.equals("mojang") ? "named" : "intermediary";
+            srcId = tree.getNamespaceId(srcNamespace);
+            dstId = tree.getNamespaceId("official");
+            if (srcId == MappingTree.NULL_NAMESPACE_ID || dstId == MappingTree.NULL_NAMESPACE_ID) {
+                throw new IOException(mappingFile.getFileName() + " does not map " + srcNamespace
+                        + " to official names");
+            }
+        }
+
+        byte[] compiled = BinaryMappings.compile(tree, srcId, dstId, activeNamespace, sourceHash);
+        try {
+            BinaryMappings.write(compiled, binaryFile);
+        } catch (IOException e) {
+            System.err.println("[SledgeMC] Failed to write binary mappings: " + e.getMessage());
+        }
+        return BinaryMappings.wrap(compiled);
+    }
+
     public String mapClassName(String name) {
-        String internal = name.replace('.', '/');
-        String mapped = classMap.getOrDefault(internal, internal);
-        return mapped.replace('/', '.');
+        BinaryMappings current = mappings;
+        String mapped = current != null ? current.mapClassDotted(name) : null;
+        return mapped != null ? mapped : name.replace('/', '.');
     }
 
     public String mapMethodName(String owner, String name, String desc) {
-        String key = owner.replace('.', '/') + "." + name + desc;
-        return methodMap.getOrDefault(key, name);
+        BinaryMappings current = mappings;
+        String mapped = current != null ? current.mapMethod(owner, name, desc) : null;
+        return mapped != null ? mapped : name;
     }
 
     public String mapFieldName(String owner, String name) {
-        String key = owner.replace('.', '/') + "." + name;
-        return fieldMap.getOrDefault(key, name);
+        return mapFieldName(owner, name, null);
+    }
+
+    public String mapFieldName(String owner, String name, String desc) {
+        BinaryMappings current = mappings;
+        String mapped = current != null ? current.mapField(owner, name, desc) : null;
+        return mapped != null ? mapped : name;
+    }
+
+    /**
+     * Maps a source class name to the target namespace, keeping the form (internal or dotted) it was given in.
+     */
+    public String mapType(String name) {
+        if (name.indexOf('/') < 0)
+            return mapClassName(name);
+
+        BinaryMappings current = mappings;
+        String mapped = current != null ? current.mapClass(name) : null;
+        return mapped != null ? mapped : name;
+    }
+
+    /**
+     * Maps a target class name back to the source namespace, keeping the form (internal or dotted) it was given in.
+     */
+    public String unmapType(String name) {
+        BinaryMappings current = mappings;
+        if (current == null)
+            return name;
+
+        boolean dotted = name.indexOf('/') < 0 && name.indexOf('.') >= 0;
+        String unmapped = current.unmapClass(dotted ? name.replace('.', '/') : name);
+        if (unmapped == null)
+            return name;
+        return dotted ? unmapped.replace('/', '.') : unmapped;
+    }
+
+    /**
+     * Remaps every class referenced by a field or method descriptor to the target namespace. Results are memoized in
+     * a bounded cache because the same descriptors are requested over and over during mixin application.
+     */
+    public String mapDesc(String desc) {
+        if (mappings == null || desc.indexOf('L') < 0)
+            return desc;
+        return mappedDescs.getUnchecked(desc);
+    }
+
+    public String unmapDesc(String desc) {
+        if (mappings == null || desc.indexOf('L') < 0)
+            return desc;
+        return unmappedDescs.getUnchecked(desc);
+    }
+
+    private String remapDesc(String desc, boolean reverse) {
+        BinaryMappings current = mappings;
+        StringBuilder out = null;
+        int copied = 0;
+
+        int start = desc.indexOf('L');
+        while (start >= 0) {
+            int end = desc.indexOf(';', start);
+            if (end < 0)
+                break;
+
+            String className = desc.substring(start + 1, end);
+            String mapped = reverse ? current.unmapClass(className) : current.mapClass(className);
+            if (mapped != null && !mapped.equals(className)) {
+                if (out == null) {
+                    out = new StringBuilder(desc.length() + 16);
+                }
+                out.append(desc, copied, start + 1).append(mapped);
+                copied = end;
+            }
+            start = desc.indexOf('L', end + 1);
+        }
+
+        if (out == null)
+            return desc;
+        return out.append(desc, copied, desc.length()).toString();
     }
 }
@@ -0,0 +1,254 @@
+/**
+ * @summary Immutable index from target classes to the mixins applied to them, read from mixin configs and bytecode without class loading.
+ */
+package sledgemc.dev.transform;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import sledgemc.dev.launcher.AtomicFiles;
+import sledgemc.dev.launcher.FileHashes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+public final class MixinTargetIndex {
+
+    public static final MixinTargetIndex EMPTY = new MixinTargetIndex(Map.of(), true);
+
+    private static final String MIXIN_DESC = "Lorg/spongepowered/asm/mixin/Mixin;";
+    private static final int FORMAT_VERSION = 1;
+    private static final Gson GSON = new Gson();
+    private static final java.lang.reflect.Type CACHE_TYPE = new TypeToken<Map<String, List<String>>>() {
+    }.getType();
+
+    private final Map<String, List<String>> mixinsByTarget;
+    private final boolean complete;
+
+    private record ModScan(Map<String, List<String>> targets, boolean complete) {
+    }
+
+    private MixinTargetIndex(Map<String, List<String>> mixinsByTarget, boolean complete) {
+        Map<String, List<String>> copy = new HashMap<>(mixinsByTarget.size() * 2);
+        mixinsByTarget.forEach((target, mixins) -> copy.put(target, List.copyOf(mixins)));
+        this.mixinsByTarget = Collections.unmodifiableMap(copy);
+        this.complete = complete;
+    }
+
+    /**
+     * Whether the class may have mixins applied. An incomplete index, where some mod could not be fully read, answers
+     * true for every class so that no mixin is skipped.
+     */
+    public boolean isTarget(String className) {
+        return !complete || mixinsByTarget.containsKey(className.replace('/', '.'));
+    }
+
+    /**
+     * Whether every registered config and mixin class was read. Only complete indexes are cached.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Returns the mixin classes targeting the class, or an empty list if it is not a mixin target.
+     */
+    public List<String> getMixins(String className) {
+        return mixinsByTarget.getOrDefault(className.replace('/', '.'), List.of());
+    }
+
+    public Set<String> getTargets() {
+        return mixinsByTarget.keySet();
+    }
+
+    public int getTargetCount() {
+        return mixinsByTarget.size();
+    }
+
+    /**
+     * Returns the index for the registered configs, reading it from the cache when the mod set is unchanged. Mods
+     * registered without a jar are read from the context class loader and make the index uncacheable.
+     */
+    public static MixinTargetIndex load(Map<String, List<String>> configs, Map<String, Path> modJars, Path cacheDir) {
+        if (configs.isEmpty())
+            return EMPTY;
+
+        String key = cacheKey(configs, modJars);
+        Path cacheFile = key == null ? null : cacheDir.resolve("mixin-index-" + key.substring(0, 16) + ".json");
+
+        if (cacheFile != null && Files.exists(cacheFile)) {
+            try {
+                Map<String, List<String>> cached = GSON.fromJson(Files.readString(cacheFile), CACHE_TYPE);
+                if (cached != null)
+                    return new MixinTargetIndex(cached, true);
+            } catch (Exception e) {
+                System.err.println("[SledgeMC] Failed to read mixin index cache: " + e.getMessage());
+            }
+        }
+
+        MixinTargetIndex index = build(configs, modJars);
+
+        if (!index.complete) {
+            System.err.println("[SledgeMC] Mixin index is incomplete; not caching it and not skipping any class");
+        } else if (cacheFile != null) {
+            try {
+                AtomicFiles.writeString(cacheFile, GSON.toJson(index.mixinsByTarget));
+            } catch (IOException e) {
+                System.err.println("[SledgeMC] Failed to save mixin index cache: " + e.getMessage());
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Scans every mod's mixin configs and mixin classes, in parallel across mods.
+     */
+    public static MixinTargetIndex build(Map<String, List<String>> configs, Map<String, Path> modJars) {
+        List<ModScan> scans = configs.entrySet().parallelStream()
+                .map(entry -> scanMod(entry.getKey(), entry.getValue(), modJars.get(entry.getKey())))
+                .toList();
+
+        Map<String, List<String>> merged = new HashMap<>();
+        boolean complete = true;
+        for (ModScan scan : scans) {
+            scan.targets().forEach(
+                    (target, mixins) -> merged.computeIfAbsent(target, k -> new ArrayList<>()).addAll(mixins));
+            complete &= scan.complete();
+        }
+        return new MixinTargetIndex(merged, complete);
+    }
+
+    /**
+     * Reads one mod's targets. Anything that cannot be read marks the scan incomplete instead of silently leaving
+     * its targets out.
+     */
+    private static ModScan scanMod(String modId, List<String> configs, Path jar) {
+        Map<String, List<String>> targets = new HashMap<>();
+        boolean complete = true;
+        try (ZipFile zip = jar != null ? new ZipFile(jar.toFile()) : null) {
+            for (String config : configs) {
+                byte[] json = read(zip, config);
+                if (json == null) {
+                    System.err.println("[SledgeMC] Mixin config not found for " + modId + ": " + config);
+                    complete = false;
+                    continue;
+                }
+
+                for (String mixin : mixinClasses(JsonParser.parseString(new String(json, StandardCharsets.UTF_8))
+                        .getAsJsonObject())) {
+                    byte[] bytes = read(zip, mixin.replace('.', '/') + ".class");
+                    if (bytes == null) {
+                        System.err.println("[SledgeMC] Mixin class not found for " + modId + ": " + mixin);
+                        complete = false;
+                        continue;
+                    }
+                    for (String target : readTargets(bytes)) {
+                        targets.computeIfAbsent(target, k -> new ArrayList<>()).add(mixin);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("[SledgeMC] Failed to index mixins of " + modId + ": " + e.getMessage());
+            complete = false;
+        }
+        return new ModScan(targets, complete);
+    }
+
+    private static List<String> mixinClasses(JsonObject config) {
+        String pkg = config.has("package") ? config.get("package").getAsString() : "";
+        List<String> classes = new ArrayList<>();
+        for (String section : new String[] { "mixins", "client" }) {
+            JsonArray names = config.getAsJsonArray(section);
+            if (names == null)
+                continue;
+            for (JsonElement name : names) {
+                classes.add(pkg.isEmpty() ? name.getAsString() : pkg + "." + name.getAsString());
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Reads the value and targets of a class's {@code @Mixin} annotation in dotted form.
+     */
+    static List<String> readTargets(byte[] classBytes) {
+        List<String> targets = new ArrayList<>();
+        new ClassReader(classBytes).accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+                if (!MIXIN_DESC.equals(descriptor))
+                    return null;
+
+                return new AnnotationVisitor(Opcodes.ASM9) {
+                    @Override
+                    public AnnotationVisitor visitArray(String name) {
+                        if (!"value".equals(name) && !"targets".equals(name))
+                            return null;
+
+                        return new AnnotationVisitor(Opcodes.ASM9) {
+                            @Override
+                            public void visit(String ignored, Object value) {
+                                if (value instanceof Type type) {
+                                    targets.add(type.getClassName());
+                                } else if (value instanceof String target) {
+                                    targets.add(target.replace('/', '.'));
+                                }
+                            }
+                        };
+                    }
+                };
+            }
+        }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        return targets;
+    }
+
+    private static byte[] read(ZipFile zip, String name) throws IOException {
+        if (zip != null) {
+            ZipEntry entry = zip.getEntry(name);
+            if (entry == null)
+                return null;
+            try (InputStream in = zip.getInputStream(entry)) {
+                return in.readAllBytes();
+            }
+        }
+
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null)
+            loader = MixinTargetIndex.class.getClassLoader();
+        try (InputStream in = loader.getResourceAsStream(name)) {
+            return in == null ? null : in.readAllBytes();
+        }
+    }
+
+    private static String cacheKey(Map<String, List<String>> configs, Map<String, Path> modJars) {
+        StringBuilder sb = new StringBuilder("v").append(FORMAT_VERSION).append('\n');
+        for (String modId : new TreeSet<>(configs.keySet())) {
+            Path jar = modJars.get(modId);
+            if (jar == null)
+                return null;
+            try {
+                sb.append(modId).append('|').append(jar.toAbsolutePath()).append('|')
+                        .append(Files.size(jar)).append('|').append(Files.getLastModifiedTime(jar).toMillis())
+                        .append('|').append(String.join(",", configs.get(modId))).append('\n');
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        return FileHashes.sha256(sb.toString());
+    }
+}
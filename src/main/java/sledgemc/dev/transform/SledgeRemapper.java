@@ -21,26 +21,26 @@ public class SledgeRemapper implements IRemapper {
 
     @Override
     public String mapFieldName(String owner, String name, String desc) {
-        return mappingService.mapFieldName(owner, name);
+        return mappingService.mapFieldName(owner, name, desc);
     }
 
     @Override
     public String map(String typeName) {
-        return mappingService.mapClassName(typeName);
+        return mappingService.mapType(typeName);
     }
 
     @Override
     public String unmap(String typeName) {
-        return typeName;
+        return mappingService.unmapType(typeName);
     }
 
     @Override
     public String mapDesc(String desc) {
-        return desc;
+        return mappingService.mapDesc(desc);
     }
 
     @Override
     public String unmapDesc(String desc) {
-        return desc;
+        return mappingService.unmapDesc(desc);
     }
 }
@@ -0,0 +1,34 @@
+/**
+ * @summary JFR event emitted for every class a transformer rewrites.
+ */
+package sledgemc.dev.transform;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("sledgemc.ClassTransform")
+@Label("Class Transform")
+@Category({ "SledgeMC", "Transform" })
+@StackTrace(false)
+class TransformEvent extends jdk.jfr.Event {
+
+    @Label("Transformer")
+    String transformer;
+
+    @Label("Class")
+    String className;
+
+    @Label("Bytes In")
+    @Description("Class size before a byte[] transformer, or -1 for node transformers that edit the shared tree")
+    @DataAmount
+    int bytesIn;
+
+    @Label("Bytes Out")
+    @Description("Class size after a byte[] transformer, or -1 for node transformers that edit the shared tree")
+    @DataAmount
+    int bytesOut;
+}
@@ -0,0 +1,259 @@
+/**
+ * @summary Low-overhead per-transformer and per-class timing and throughput counters for the transform pipeline.
+ */
+package sledgemc.dev.transform;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import sledgemc.dev.launcher.AtomicFiles;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TransformMetrics {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final int REPORTED_CLASSES = 50;
+
+    private final Map<ClassTransformer, TransformerStats> transformers = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> classNanos = new ConcurrentHashMap<>();
+    private final LatencyHistogram classHistogram = new LatencyHistogram();
+    private final LatencyHistogram parseHistogram = new LatencyHistogram();
+    private final LatencyHistogram writeHistogram = new LatencyHistogram();
+    private final LongAdder parsedBytes = new LongAdder();
+    private final LongAdder writtenBytes = new LongAdder();
+    private final LongAdder skippedClasses = new LongAdder();
+    private volatile boolean enabled;
+
+    public TransformMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public static class TransformerStats {
+        private final String name;
+        private final int priority;
+        final LongAdder predicateCalls = new LongAdder();
+        final LongAdder predicateHits = new LongAdder();
+        final LongAdder bytesMeasured = new LongAdder();
+        final LongAdder bytesIn = new LongAdder();
+        final LongAdder bytesOut = new LongAdder();
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        TransformerStats(ClassTransformer transformer) {
+            String name = transformer.getName();
+            this.name = name == null || name.isEmpty() ? transformer.getClass().getName() : name;
+            this.priority = transformer.getPriority();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        public long getPredicateCalls() {
+            return predicateCalls.sum();
+        }
+
+        public long getPredicateHits() {
+            return predicateHits.sum();
+        }
+
+        public double getHitRatio() {
+            long calls = predicateCalls.sum();
+            return calls == 0 ? 0 : (double) predicateHits.sum() / calls;
+        }
+
+        public long getTransformCalls() {
+            return histogram.getCount();
+        }
+
+        /**
+         * How many of the transform calls had their sizes measured. Node transformers edit the shared tree, so only
+         * byte[] transformers contribute to {@link #getBytesIn()} and {@link #getBytesOut()}.
+         */
+        public long getBytesMeasuredCalls() {
+            return bytesMeasured.sum();
+        }
+
+        public long getBytesIn() {
+            return bytesIn.sum();
+        }
+
+        public long getBytesOut() {
+            return bytesOut.sum();
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    TransformerStats forTransformer(ClassTransformer transformer) {
+        TransformerStats stats = transformers.get(transformer);
+        return stats != null ? stats : transformers.computeIfAbsent(transformer, TransformerStats::new);
+    }
+
+    void recordPredicate(TransformerStats stats, boolean hit) {
+        stats.predicateCalls.increment();
+        if (hit)
+            stats.predicateHits.increment();
+    }
+
+    /**
+     * Records one transform call. Sizes of -1 mean they were not measured and are left out of the byte counters.
+     */
+    void recordTransform(TransformerStats stats, long nanos, int bytesIn, int bytesOut) {
+        stats.histogram.record(nanos);
+        if (bytesIn >= 0 && bytesOut >= 0) {
+            stats.bytesMeasured.increment();
+            stats.bytesIn.add(bytesIn);
+            stats.bytesOut.add(bytesOut);
+        }
+    }
+
+    /**
+     * Records parsing a class into the shared ClassNode, which is not charged to the transformer that needed it.
+     */
+    void recordParse(long nanos, int bytes) {
+        parseHistogram.record(nanos);
+        parsedBytes.add(bytes);
+    }
+
+    /**
+     * Records writing the shared ClassNode back to bytes, before a byte[] transformer or at the end of the chain.
+     */
+    void recordWrite(long nanos, int bytes) {
+        writeHistogram.record(nanos);
+        writtenBytes.add(bytes);
+    }
+
+    void recordClass(String className, long nanos) {
+        classHistogram.record(nanos);
+        classNanos.computeIfAbsent(className, k -> new LongAdder()).add(nanos);
+    }
+
+    void recordSkipped() {
+        skippedClasses.increment();
+    }
+
+    /**
+     * Returns the statistics of every transformer that has been consulted at least once, most expensive first.
+     */
+    public List<TransformerStats> getTransformerStats() {
+        List<TransformerStats> stats = new ArrayList<>(transformers.values());
+        stats.sort(Comparator.comparingLong((TransformerStats s) -> s.histogram.getTotalNanos()).reversed());
+        return stats;
+    }
+
+    /**
+     * Returns the classes with the highest total transformation time, most expensive first.
+     */
+    public Map<String, Long> getSlowestClasses(int limit) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        classNanos.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().sum()))
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(limit)
+                .forEach(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+
+    public LatencyHistogram getClassHistogram() {
+        return classHistogram;
+    }
+
+    public long getSkippedClasses() {
+        return skippedClasses.sum();
+    }
+
+    public LatencyHistogram getParseHistogram() {
+        return parseHistogram;
+    }
+
+    public LatencyHistogram getWriteHistogram() {
+        return writeHistogram;
+    }
+
+    public JsonObject toJson() {
+        JsonObject root = new JsonObject();
+        root.addProperty("classesTransformed", classHistogram.getCount());
+        root.addProperty("classesSkipped", skippedClasses.sum());
+        root.add("classTimes", histogramJson(classHistogram));
+
+        JsonObject parse = histogramJson(parseHistogram);
+        parse.addProperty("bytes", parsedBytes.sum());
+        root.add("nodeParse", parse);
+        JsonObject write = histogramJson(writeHistogram);
+        write.addProperty("bytes", writtenBytes.sum());
+        root.add("nodeWrite", write);
+
+        JsonArray transformerArray = new JsonArray();
+        for (TransformerStats stats : getTransformerStats()) {
+            JsonObject entry = new JsonObject();
+            entry.addProperty("name", stats.getName());
+            entry.addProperty("priority", stats.getPriority());
+            entry.addProperty("predicateCalls", stats.getPredicateCalls());
+            entry.addProperty("predicateHits", stats.getPredicateHits());
+            entry.addProperty("hitRatio", stats.getHitRatio());
+            if (stats.getBytesMeasuredCalls() > 0) {
+                entry.addProperty("bytesMeasuredCalls", stats.getBytesMeasuredCalls());
+                entry.addProperty("bytesIn", stats.getBytesIn());
+                entry.addProperty("bytesOut", stats.getBytesOut());
+            }
+            entry.add("times", histogramJson(stats.histogram));
+            transformerArray.add(entry);
+        }
+        root.add("transformers", transformerArray);
+
+        JsonObject slowest = new JsonObject();
+        getSlowestClasses(REPORTED_CLASSES).forEach((name, nanos) -> slowest.addProperty(name, nanos));
+        root.add("slowestClassesNanos", slowest);
+        return root;
+    }
+
+    private static JsonObject histogramJson(LatencyHistogram histogram) {
+        JsonObject json = new JsonObject();
+        json.addProperty("count", histogram.getCount());
+        json.addProperty("totalNanos", histogram.getTotalNanos());
+        json.addProperty("meanNanos", histogram.getMeanNanos());
+        json.addProperty("p50Nanos", histogram.getPercentileNanos(50));
+        json.addProperty("p90Nanos", histogram.getPercentileNanos(90));
+        json.addProperty("p99Nanos", histogram.getPercentileNanos(99));
+        json.addProperty("maxNanos", histogram.getMaxNanos());
+        return json;
+    }
+
+    public void writeReport(Path file) throws IOException {
+        AtomicFiles.writeString(file, GSON.toJson(toJson()));
+    }
+
+    /**
+     * Writes the JSON report to the given file when the JVM shuts down.
+     */
+    public void writeReportOnShutdown(Path file) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                writeReport(file);
+                System.out.println("[SledgeMC] Transform metrics written to " + file);
+            } catch (IOException e) {
+                System.err.println("[SledgeMC] Failed to write transform metrics: " + e.getMessage());
+            }
+        }, "SledgeMC-TransformMetrics"));
+    }
+}
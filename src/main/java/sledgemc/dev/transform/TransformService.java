@@ -4,20 +4,51 @@
  */
 package sledgemc.dev.transform;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TransformService {
 
+    private static final Path CACHE_DIR = Paths.get(System.getProperty("user.home"), ".sledgemc", "cache");
+
     private final Map<String, List<String>> mixinConfigs = new LinkedHashMap<>();
+    private final Map<String, Path> modJars = new HashMap<>();
     private final List<ClassTransformer> transformers = new ArrayList<>();
+    private final Set<String> pretransformed = ConcurrentHashMap.newKeySet();
+    private volatile String pretransformedFingerprint;
+    private final TransformMetrics metrics = new TransformMetrics(Boolean.getBoolean("sledgemc.transformMetrics"));
+    private volatile TransformerIndex index = TransformerIndex.EMPTY;
+    private volatile boolean indexDirty = false;
+    private volatile MixinTargetIndex mixinIndex = MixinTargetIndex.EMPTY;
     private boolean initialized = false;
 
     public void registerMixinConfigs(String modId, List<String> configs) {
         mixinConfigs.computeIfAbsent(modId, k -> new ArrayList<>()).addAll(configs);
     }
 
-    public void registerTransformer(ClassTransformer transformer) {
+    /**
+     * Registers mixin configs together with the mod jar they and their mixin classes are read from.
+     */
+    public void registerMixinConfigs(String modId, Path modJar, List<String> configs) {
+        registerMixinConfigs(modId, configs);
+        modJars.put(modId, modJar);
+    }
+
+    /**
+     * Adds a transformer to the chain. Classes pre-transformed by an earlier chain are no longer skipped, so the new
+     * transformer sees them too; call {@link #pretransform} again to rebuild the jar for the new chain.
+     */
+    public synchronized void registerTransformer(ClassTransformer transformer) {
         transformers.add(transformer);
+        indexDirty = true;
+        if (!pretransformed.isEmpty()) {
+            System.out.println("[SledgeMC] Transformer " + transformer.getName()
+                    + " registered after pre-transformation; pre-transformed classes run the chain at load time");
+            pretransformed.clear();
+        }
     }
 
     public void initialize() {
@@ -30,19 +61,151 @@ public class TransformService {
             }
         }
 
+        long start = System.nanoTime();
+        mixinIndex = MixinTargetIndex.load(mixinConfigs, modJars, CACHE_DIR);
+        System.out.println("[SledgeMC] Indexed " + mixinIndex.getTargetCount() + " mixin targets in "
+                + (System.nanoTime() - start) / 1_000_000 + "ms");
+
+        getIndex();
+        if (metrics.isEnabled()) {
+            String report = System.getProperty("sledgemc.transformMetrics.report");
+            metrics.writeReportOnShutdown(report != null ? Paths.get(report)
+                    : Paths.get(System.getProperty("user.home"), ".sledgemc", "transform-metrics.json"));
+        }
         initialized = true;
     }
 
+    /**
+     * Runs the chain over one class. The name may be given in internal form, as a ClassFileTransformer receives it,
+     * or dotted; transformers and the index always see the dotted form.
+     */
     public byte[] transform(String className, byte[] classBytes) {
-        byte[] result = classBytes;
-        for (ClassTransformer transformer : transformers) {
-            if (transformer.shouldTransform(className)) {
-                result = transformer.transform(className, result);
+        className = className.replace('/', '.');
+        TransformerIndex current = getIndex();
+        if (pretransformed.contains(className) && current.fingerprint().equals(pretransformedFingerprint)) {
+            if (metrics.isEnabled())
+                metrics.recordSkipped();
+            return classBytes;
+        }
+        return runChain(current, className, classBytes);
+    }
+
+    /**
+     * Runs the current transformer chain over every class of a jar ahead of time and returns the cached, pre-patched
+     * jar to put on the classpath in place of the original. Classes found in it are skipped by {@link #transform}
+     * for as long as the chain keeps the fingerprint the jar was built with.
+     */
+    public synchronized Path pretransform(Path jar, Path cacheDir) throws IOException {
+        TransformerIndex current = getIndex();
+        Path output = new AheadOfTimeTransformer(this, current, cacheDir).pretransform(jar);
+        if (!current.fingerprint().equals(pretransformedFingerprint)) {
+            pretransformed.clear();
+            pretransformedFingerprint = current.fingerprint();
+        }
+        pretransformed.addAll(AheadOfTimeTransformer.listClasses(output));
+        return output;
+    }
+
+    byte[] runChain(TransformerIndex index, String className, byte[] classBytes) {
+        ClassChain chain = new ClassChain(className, classBytes);
+
+        if (!metrics.isEnabled()) {
+            for (ClassTransformer transformer : index.candidates(className)) {
+                if (transformer.shouldTransform(className)) {
+                    chain.apply(transformer);
+                }
             }
+            return chain.bytes();
         }
+
+        long classStart = System.nanoTime();
+        boolean transformed = false;
+        for (ClassTransformer transformer : index.candidates(className)) {
+            TransformMetrics.TransformerStats stats = metrics.forTransformer(transformer);
+            boolean hit = transformer.shouldTransform(className);
+            metrics.recordPredicate(stats, hit);
+            if (!hit)
+                continue;
+
+            // parsing into the shared node and writing it back are charged to the chain, not to a transformer
+            if (chain.needsParse(transformer)) {
+                long start = System.nanoTime();
+                chain.parse();
+                metrics.recordParse(System.nanoTime() - start, chain.size());
+            } else if (!(transformer instanceof ClassNodeTransformer) && chain.hasPendingWrite()) {
+                writeBack(chain);
+            }
+
+            // node transformers edit the shared tree, so their output size is only known once it is written
+            boolean measured = !(transformer instanceof ClassNodeTransformer);
+            int bytesIn = measured ? chain.size() : -1;
+            TransformEvent event = new TransformEvent();
+            event.begin();
+            long start = System.nanoTime();
+            chain.apply(transformer);
+            long elapsed = System.nanoTime() - start;
+            event.end();
+
+            int bytesOut = measured ? chain.size() : -1;
+            metrics.recordTransform(stats, elapsed, bytesIn, bytesOut);
+            if (event.shouldCommit()) {
+                event.transformer = transformer.getName();
+                event.className = className;
+                event.bytesIn = bytesIn;
+                event.bytesOut = bytesOut;
+                event.commit();
+            }
+            transformed = true;
+        }
+
+        if (chain.hasPendingWrite())
+            writeBack(chain);
+        byte[] result = chain.bytes();
+        if (transformed)
+            metrics.recordClass(className, System.nanoTime() - classStart);
         return result;
     }
 
+    private void writeBack(ClassChain chain) {
+        long start = System.nanoTime();
+        chain.bytes();
+        metrics.recordWrite(System.nanoTime() - start, chain.size());
+    }
+
+    /**
+     * Returns the dispatch index, rebuilding it once if transformers were registered since it was last built.
+     */
+    private TransformerIndex getIndex() {
+        if (indexDirty) {
+            synchronized (this) {
+                if (indexDirty) {
+                    index = new TransformerIndex(transformers);
+                    indexDirty = false;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Whether any registered mixin targets the class. Classes that are not targets can skip the mixin path.
+     */
+    public boolean isMixinTarget(String className) {
+        return mixinIndex.isTarget(className);
+    }
+
+    public MixinTargetIndex getMixinIndex() {
+        return mixinIndex;
+    }
+
+    /**
+     * Per-transformer and per-class metrics. Collection and the shutdown report are off unless the game is started
+     * with -Dsledgemc.transformMetrics=true.
+     */
+    public TransformMetrics getMetrics() {
+        return metrics;
+    }
+
     public int getMixinConfigCount() {
         return mixinConfigs.values().stream().mapToInt(List::size).sum();
     }
@@ -51,6 +214,10 @@ public class TransformService {
         return transformers.size();
     }
 
+    public int getPretransformedCount() {
+        return pretransformed.size();
+    }
+
     public boolean isInitialized() {
         return initialized;
     }
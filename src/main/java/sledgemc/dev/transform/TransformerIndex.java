@@ -0,0 +1,125 @@
+/**
+ * @summary Immutable lookup from class names to the transformers targeting them, in priority order.
+ */
+package sledgemc.dev.transform;
+
+import sledgemc.dev.launcher.FileHashes;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+final class TransformerIndex {
+
+    static final TransformerIndex EMPTY = new TransformerIndex(List.of());
+
+    private final List<ClassTransformer> ordered;
+    private final Map<ClassTransformer, Integer> ordinals = new IdentityHashMap<>();
+    private final Map<String, List<ClassTransformer>> byClass = new HashMap<>();
+    private final Map<String, List<ClassTransformer>> byPackage = new HashMap<>();
+    private final List<ClassTransformer> wildcard = new ArrayList<>();
+    private final Map<String, List<ClassTransformer>> packageChains = new ConcurrentHashMap<>();
+    private volatile String fingerprint;
+
+    TransformerIndex(List<ClassTransformer> transformers) {
+        List<ClassTransformer> sorted = new ArrayList<>(transformers);
+        sorted.sort(Comparator.comparingInt(ClassTransformer::getPriority));
+        this.ordered = List.copyOf(sorted);
+
+        for (ClassTransformer transformer : ordered) {
+            ordinals.put(transformer, ordinals.size());
+
+            Set<String> classes = transformer.getTargetClasses();
+            Set<String> packages = transformer.getTargetPackages();
+            if (classes.isEmpty() && packages.isEmpty()) {
+                wildcard.add(transformer);
+                continue;
+            }
+
+            for (String name : classes) {
+                byClass.computeIfAbsent(name.replace('/', '.'), k -> new ArrayList<>()).add(transformer);
+            }
+            for (String pkg : packages) {
+                String key = pkg.replace('/', '.');
+                if (key.endsWith("."))
+                    key = key.substring(0, key.length() - 1);
+                byPackage.computeIfAbsent(key, k -> new ArrayList<>()).add(transformer);
+            }
+        }
+    }
+
+    /**
+     * All transformers in execution order.
+     */
+    List<ClassTransformer> ordered() {
+        return ordered;
+    }
+
+    /**
+     * Hash of every transformer's class, name, priority and version in execution order. Two indexes with the same
+     * fingerprint produce the same output for the same class.
+     */
+    String fingerprint() {
+        String result = fingerprint;
+        if (result == null) {
+            StringBuilder sb = new StringBuilder();
+            for (ClassTransformer transformer : ordered) {
+                sb.append(transformer.getClass().getName()).append('|')
+                        .append(transformer.getName()).append('|')
+                        .append(transformer.getPriority()).append('|')
+                        .append(transformer.getVersion()).append('\n');
+            }
+            result = FileHashes.sha256(sb.toString());
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the transformers that may apply to the class, in execution order. Indexed transformers are only
+     * returned for their declared targets; the predicate of every candidate still has the final say. The name must be
+     * in dotted form, which {@link TransformService#transform} normalizes to.
+     */
+    List<ClassTransformer> candidates(String className) {
+        if (byClass.isEmpty() && byPackage.isEmpty())
+            return wildcard;
+
+        int dot = className.lastIndexOf('.');
+        String pkg = dot > 0 ? className.substring(0, dot) : "";
+        List<ClassTransformer> chain = packageChains.get(pkg);
+        if (chain == null)
+            chain = packageChains.computeIfAbsent(pkg, this::resolvePackage);
+
+        List<ClassTransformer> exact = byClass.get(className);
+        if (exact == null)
+            return chain;
+
+        List<ClassTransformer> result = new ArrayList<>(chain);
+        for (ClassTransformer transformer : exact) {
+            if (!result.contains(transformer))
+                result.add(transformer);
+        }
+        result.sort(Comparator.comparingInt(ordinals::get));
+        return result;
+    }
+
+    /**
+     * Combines the transformers of a package and all of its parent packages with the wildcard transformers.
+     */
+    private List<ClassTransformer> resolvePackage(String pkg) {
+        List<ClassTransformer> result = new ArrayList<>(wildcard);
+        String current = pkg;
+        while (!current.isEmpty()) {
+            List<ClassTransformer> matched = byPackage.get(current);
+            if (matched != null) {
+                for (ClassTransformer transformer : matched) {
+                    if (!result.contains(transformer))
+                        result.add(transformer);
+                }
+            }
+            int dot = current.lastIndexOf('.');
+            current = dot > 0 ? current.substring(0, dot) : "";
+        }
+        result.sort(Comparator.comparingInt(ordinals::get));
+        return List.copyOf(result);
+    }
+}
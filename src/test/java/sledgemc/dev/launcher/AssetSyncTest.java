@@ -0,0 +1,173 @@
+/**
+ * @summary Exercises AssetSync against an in-process HTTP server: cold sync, corrupt objects and the verified cache.
+ */
+package sledgemc.dev.launcher;
+
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssetSyncTest {
+
+    private static final int OBJECTS = 20;
+
+    @TempDir
+    Path dir;
+
+    private HttpServer server;
+    private final Map<String, byte[]> objects = new LinkedHashMap<>();
+    private final AtomicInteger objectRequests = new AtomicInteger();
+    private byte[] index;
+    private String baseUrl;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        Random random = new Random(42);
+        JsonObject entries = new JsonObject();
+        for (int i = 0; i < OBJECTS; i++) {
+            byte[] data = new byte[1_000 + random.nextInt(5_000)];
+            random.nextBytes(data);
+            String hash = sha1(data);
+            objects.put(hash, data);
+
+            JsonObject entry = new JsonObject();
+            entry.addProperty("hash", hash);
+            entry.addProperty("size", data.length);
+            entries.add("minecraft/sounds/" + i + ".ogg", entry);
+        }
+        JsonObject root = new JsonObject();
+        root.add("objects", entries);
+        index = root.toString().getBytes(StandardCharsets.UTF_8);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/index.json", exchange -> send(exchange, 200, index));
+        server.createContext("/objects/", exchange -> {
+            objectRequests.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            byte[] data = objects.get(path.substring(path.lastIndexOf('/') + 1));
+            if (data == null) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+            } else {
+                send(exchange, 200, data);
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void downloadsMissingObjects() throws IOException {
+        AssetSync.Result result = sync();
+
+        assertEquals(OBJECTS, result.objects());
+        assertEquals(OBJECTS, result.downloaded());
+        assertEquals(OBJECTS, objectRequests.get());
+        assertObjectsIntact();
+    }
+
+    @Test
+    void repairsCorruptObjects() throws IOException {
+        sync();
+        Iterator<Map.Entry<String, byte[]>> it = objects.entrySet().iterator();
+        Map.Entry<String, byte[]> flipped = it.next();
+        byte[] corrupt = flipped.getValue().clone();
+        corrupt[0] ^= 1;
+        Files.write(objectPath(flipped.getKey()), corrupt);
+        Files.write(objectPath(it.next().getKey()), new byte[] { 1, 2, 3 });
+        objectRequests.set(0);
+
+        AssetSync.Result result = sync();
+
+        assertEquals(1, result.hashed());
+        assertEquals(2, result.downloaded());
+        assertEquals(2, objectRequests.get());
+        assertObjectsIntact();
+    }
+
+    @Test
+    void reusesVerifiedCache() throws IOException {
+        sync();
+        objectRequests.set(0);
+
+        AssetSync.Result result = sync();
+
+        assertEquals(OBJECTS, result.cached());
+        assertEquals(0, result.hashed());
+        assertEquals(0, result.downloaded());
+        assertEquals(0, objectRequests.get());
+    }
+
+    @Test
+    void rehashesTouchedObjects() throws IOException {
+        sync();
+        String touched = objects.keySet().iterator().next();
+        Files.setLastModifiedTime(objectPath(touched), FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        objectRequests.set(0);
+
+        AssetSync.Result result = sync();
+
+        assertEquals(OBJECTS - 1, result.cached());
+        assertEquals(1, result.hashed());
+        assertEquals(0, result.downloaded());
+        assertEquals(0, objectRequests.get());
+    }
+
+    private AssetSync.Result sync() throws IOException {
+        try (DownloadEngine engine = new DownloadEngine(4, 1)) {
+            AssetSync sync = new AssetSync(dir.resolve("assets"), baseUrl + "/objects/", engine,
+                    dir.resolve("verified.json"));
+            return sync.sync(new LibraryResolver.AssetIndex("test", sha1(index), index.length, baseUrl + "/index.json"),
+                    msg -> {
+                    });
+        }
+    }
+
+    private void assertObjectsIntact() throws IOException {
+        for (Map.Entry<String, byte[]> entry : objects.entrySet()) {
+            assertArrayEquals(entry.getValue(), Files.readAllBytes(objectPath(entry.getKey())));
+        }
+    }
+
+    private Path objectPath(String hash) {
+        return dir.resolve("assets").resolve("objects").resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String sha1(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * @summary Exercises AtomicFiles: replacing targets and leaving no temporary file behind on failure.
+ */
+package sledgemc.dev.launcher;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomicFilesTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replacesTargetAndCreatesParents() throws IOException {
+        Path target = dir.resolve("nested").resolve("file.json");
+        AtomicFiles.writeString(target, "first");
+        AtomicFiles.writeString(target, "second");
+
+        assertEquals("second", Files.readString(target));
+        assertEquals(1, count(target.getParent()));
+    }
+
+    @Test
+    void removesTempFileWhenWritingFails() throws IOException {
+        Path target = Files.writeString(dir.resolve("file.json"), "original");
+
+        IOException thrown = assertThrows(IOException.class, () -> AtomicFiles.write(target, temp -> {
+            Files.writeString(temp, "partial");
+            throw new IOException("disk full");
+        }));
+
+        assertEquals("disk full", thrown.getMessage());
+        assertEquals("original", Files.readString(target));
+        assertEquals(1, count(dir));
+    }
+
+    private static long count(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * @summary Exercises CdsArchive pruning: least recently used archives go first, whatever their version.
+ */
+package sledgemc.dev.launcher;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CdsArchiveTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void keepsOtherInstancesOfTheSameVersion() throws IOException {
+        Path first = archive("1.21.11", 1, 1_000);
+        Path second = archive("1.21.11", 2, 2_000);
+        Path current = dir.resolve("1.21.11-" + key(3) + ".jsa");
+
+        CdsArchive.prune(dir, current, 3);
+
+        assertTrue(Files.exists(first));
+        assertTrue(Files.exists(second));
+    }
+
+    @Test
+    void prunesLeastRecentlyUsedArchives() throws IOException {
+        Path oldest = archive("1.21.4", 1, 1_000);
+        Path middle = archive("1.21.11", 2, 2_000);
+        Path newest = archive("1.21.8", 3, 3_000);
+        Path current = archive("1.21.11", 4, 500);
+        Path oldestTimings = timings(oldest, 1_500);
+        timings(middle, 9_000);
+        Files.writeString(dir.resolve("unrelated.txt"), "kept");
+
+        CdsArchive.prune(dir, current, 3);
+
+        assertFalse(Files.exists(oldest));
+        assertFalse(Files.exists(oldestTimings));
+        assertTrue(Files.exists(middle));
+        assertTrue(Files.exists(newest));
+        assertTrue(Files.exists(current));
+        assertTrue(Files.exists(dir.resolve("unrelated.txt")));
+    }
+
+    private Path archive(String version, int key, long mtime) throws IOException {
+        Path archive = Files.write(dir.resolve(version + "-" + key(key) + ".jsa"), new byte[] { 1 });
+        Files.setLastModifiedTime(archive, FileTime.fromMillis(mtime));
+        return archive;
+    }
+
+    private Path timings(Path archive, long mtime) throws IOException {
+        Path timings = Files.writeString(archive.resolveSibling(archive.getFileName() + ".timings.json"), "{}");
+        Files.setLastModifiedTime(timings, FileTime.fromMillis(mtime));
+        return timings;
+    }
+
+    private static String key(int key) {
+        return String.format("%016x", key);
+    }
+}
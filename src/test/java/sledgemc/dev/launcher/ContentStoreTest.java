@@ -0,0 +1,70 @@
+/**
+ * @summary Exercises ContentStore ingest, lookup and deployment, including corrupt objects and stamp-based skips.
+ */
+package sledgemc.dev.launcher;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentStoreTest {
+
+    private static final byte[] CONTENT = "agent jar contents".getBytes();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void ingestsUnderContentHash() throws IOException {
+        ContentStore store = new ContentStore(dir.resolve("store"));
+        Path object = store.ingest("agent.jar", Files.write(dir.resolve("download"), CONTENT));
+
+        assertEquals(FileHashes.sha256(object), object.getFileName().toString());
+        assertEquals(object, store.lookup("agent.jar"));
+        assertFalse(Files.exists(dir.resolve("download")));
+        assertNull(store.lookup("unknown.jar"));
+    }
+
+    @Test
+    void discardsObjectChangedBehindItsStamp() throws IOException {
+        ContentStore store = new ContentStore(dir.resolve("store"));
+        Path object = store.ingest("agent.jar", Files.write(dir.resolve("download"), CONTENT));
+
+        object.toFile().setWritable(true);
+        byte[] corrupt = CONTENT.clone();
+        corrupt[0] ^= 1;
+        Files.write(object, corrupt);
+        Files.setLastModifiedTime(object, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+        assertNull(store.lookup("agent.jar"));
+        assertFalse(Files.exists(object));
+    }
+
+    @Test
+    void skipsTargetsThatAreAlreadyDeployed() throws IOException {
+        ContentStore store = new ContentStore(dir.resolve("store"));
+        Path object = store.ingest("agent.jar", Files.write(dir.resolve("download"), CONTENT));
+        Path target = dir.resolve("instance").resolve("agent.jar");
+
+        ContentStore.DeployResult first = store.deploy(object, target);
+        assertNotEquals(ContentStore.DeployResult.SKIPPED, first);
+        assertArrayEquals(CONTENT, Files.readAllBytes(target));
+        assertEquals(ContentStore.DeployResult.SKIPPED, store.deploy(object, target));
+    }
+
+    @Test
+    void redeploysChangedTargets() throws IOException {
+        ContentStore store = new ContentStore(dir.resolve("store"));
+        Path object = store.ingest("agent.jar", Files.write(dir.resolve("download"), CONTENT));
+        Path target = Files.write(dir.resolve("agent.jar"), "something else".getBytes());
+
+        assertNotEquals(ContentStore.DeployResult.SKIPPED, store.deploy(object, target));
+        assertArrayEquals(CONTENT, Files.readAllBytes(target));
+    }
+}
@@ -0,0 +1,248 @@
+/**
+ * @summary Exercises DownloadEngine against an in-process HTTP server: resume, unsatisfiable ranges, truncated transfers and checksum mismatches.
+ */
+package sledgemc.dev.launcher;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownloadEngineTest {
+
+    private static final byte[] BODY = new byte[200_000];
+
+    static {
+        new Random(42).nextBytes(BODY);
+    }
+
+    @TempDir
+    Path dir;
+
+    private HttpServer server;
+    private final List<String> ranges = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger requests = new AtomicInteger();
+    private String baseUrl;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/file", counted(exchange -> serve(exchange, BODY, true)));
+        server.createContext("/ignores-range", counted(exchange -> serve(exchange, BODY, false)));
+        server.createContext("/wrong-offset", counted(exchange -> {
+            if (exchange.getRequestHeaders().getFirst("Range") != null) {
+                exchange.getResponseHeaders().add("Content-Range",
+                        "bytes 0-" + (BODY.length - 1) + "/" + BODY.length);
+                send(exchange, 206, BODY);
+            } else {
+                serve(exchange, BODY, true);
+            }
+        }));
+        server.createContext("/truncated-once", counted(exchange -> {
+            if (requests.get() == 1) {
+                exchange.sendResponseHeaders(200, BODY.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(BODY, 0, BODY.length / 2);
+                }
+            } else {
+                serve(exchange, BODY, true);
+            }
+        }));
+        server.createContext("/corrupt", counted(exchange -> {
+            byte[] corrupt = BODY.clone();
+            corrupt[corrupt.length / 2] ^= 1;
+            serve(exchange, corrupt, true);
+        }));
+        server.createContext("/file.sha1", exchange -> send(exchange, 200,
+                (sha1(BODY) + "  file\n").getBytes()));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void downloadsAndVerifies() throws IOException {
+        Path target = dir.resolve("out.jar");
+        try (DownloadEngine engine = new DownloadEngine(2, 1)) {
+            engine.download(DownloadEngine.Request.sha1(baseUrl + "/file", target, sha1(BODY)), msg -> {
+            });
+        }
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+        assertFalse(Files.exists(part(target)));
+    }
+
+    @Test
+    void resumesFromPartialFile() throws IOException {
+        Path target = dir.resolve("out.jar");
+        Files.write(part(target), Arrays.copyOf(BODY, 50_000));
+
+        try (DownloadEngine engine = new DownloadEngine(2, 1)) {
+            engine.download(DownloadEngine.Request.sha1(baseUrl + "/file", target, sha1(BODY)), msg -> {
+            });
+        }
+        assertEquals(List.of("bytes=50000-"), ranges);
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+    }
+
+    @Test
+    void restartsWhenServerIgnoresRange() throws IOException {
+        Path target = dir.resolve("out.jar");
+        Files.write(part(target), Arrays.copyOf(BODY, 50_000));
+
+        try (DownloadEngine engine = new DownloadEngine(2, 1)) {
+            engine.download(DownloadEngine.Request.sha1(baseUrl + "/ignores-range", target, sha1(BODY)), msg -> {
+            });
+        }
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+    }
+
+    @Test
+    void discardsPartialFileWhenResumedAtWrongOffset() throws IOException {
+        Path target = dir.resolve("out.jar");
+        Files.write(part(target), Arrays.copyOf(BODY, 50_000));
+
+        try (DownloadEngine engine = new DownloadEngine(2, 2)) {
+            engine.download(DownloadEngine.Request.of(baseUrl + "/wrong-offset", target), msg -> {
+            });
+        }
+        assertEquals(2, requests.get());
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+    }
+
+    @Test
+    void acceptsCompletePartialFileOn416() throws IOException {
+        Path target = dir.resolve("out.jar");
+        Files.write(part(target), BODY);
+
+        try (DownloadEngine engine = new DownloadEngine(2, 1)) {
+            engine.download(DownloadEngine.Request.sha1(baseUrl + "/file", target, sha1(BODY)), msg -> {
+            });
+        }
+        assertEquals(1, requests.get());
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+    }
+
+    @Test
+    void discardsStaleLargerPartialFileOn416() throws IOException {
+        Path target = dir.resolve("out.jar");
+        byte[] stale = Arrays.copyOf(BODY, BODY.length + 1_000);
+        Files.write(part(target), stale);
+
+        try (DownloadEngine engine = new DownloadEngine(2, 2)) {
+            engine.download(DownloadEngine.Request.of(baseUrl + "/file", target), msg -> {
+            });
+        }
+        assertEquals(2, requests.get());
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+    }
+
+    @Test
+    void retriesTruncatedTransfer() throws IOException {
+        Path target = dir.resolve("out.jar");
+        try (DownloadEngine engine = new DownloadEngine(2, 2)) {
+            engine.download(DownloadEngine.Request.sha1(baseUrl + "/truncated-once", target, sha1(BODY)), msg -> {
+            });
+        }
+        assertEquals(2, requests.get());
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+    }
+
+    @Test
+    void rejectsChecksumMismatch() {
+        Path target = dir.resolve("out.jar");
+        try (DownloadEngine engine = new DownloadEngine(2, 2)) {
+            assertThrows(IOException.class, () -> engine
+                    .download(DownloadEngine.Request.sha1(baseUrl + "/corrupt", target, sha1(BODY)), msg -> {
+                    }));
+        }
+        assertFalse(Files.exists(target));
+        assertFalse(Files.exists(part(target)));
+    }
+
+    @Test
+    void readsPublishedSha1() throws IOException {
+        try (DownloadEngine engine = new DownloadEngine()) {
+            assertEquals(sha1(BODY), engine.publishedSha1(baseUrl + "/file"));
+            assertThrows(IOException.class, () -> engine.publishedSha1(baseUrl + "/missing"));
+        }
+    }
+
+    @Test
+    void parsesContentRange() {
+        assertArrayEquals(new long[] { 100, 200 }, DownloadEngine.parseContentRange("bytes 100-199/200"));
+        assertArrayEquals(new long[] { -1, 200 }, DownloadEngine.parseContentRange("bytes */200"));
+        assertArrayEquals(new long[] { 0, -1 }, DownloadEngine.parseContentRange("bytes 0-99/*"));
+        assertArrayEquals(new long[] { -1, -1 }, DownloadEngine.parseContentRange(null));
+        assertArrayEquals(new long[] { -1, -1 }, DownloadEngine.parseContentRange("bytes x-y/z"));
+    }
+
+    /**
+     * Serves the body, honouring a Range header the way a conforming server does when asked to.
+     */
+    private void serve(HttpExchange exchange, byte[] body, boolean honourRange) throws IOException {
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        if (range != null)
+            ranges.add(range);
+
+        if (range == null || !honourRange) {
+            send(exchange, 200, body);
+            return;
+        }
+
+        int start = Integer.parseInt(range.substring("bytes=".length(), range.indexOf('-')));
+        if (start >= body.length) {
+            exchange.getResponseHeaders().add("Content-Range", "bytes */" + body.length);
+            exchange.sendResponseHeaders(416, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().add("Content-Range",
+                "bytes " + start + "-" + (body.length - 1) + "/" + body.length);
+        send(exchange, 206, Arrays.copyOfRange(body, start, body.length));
+    }
+
+    private HttpHandler counted(HttpHandler handler) {
+        return exchange -> {
+            requests.incrementAndGet();
+            handler.handle(exchange);
+        };
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Path part(Path target) {
+        return target.resolveSibling(target.getFileName() + ".part");
+    }
+
+    private static String sha1(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
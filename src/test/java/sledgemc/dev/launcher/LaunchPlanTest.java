@@ -0,0 +1,104 @@
+/**
+ * @summary Exercises LaunchPlan fingerprinting: settings, version JSONs, classpath jars, missing libraries and natives.
+ */
+package sledgemc.dev.launcher;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LaunchPlanTest {
+
+    private static final Map<String, String> SETTINGS = Map.of("version", "1.21", "javaPath", "/usr/bin/java");
+    private static final LibraryResolver.AssetIndex ASSETS = new LibraryResolver.AssetIndex("17", "abc", 10,
+            "http://example/17.json");
+
+    @TempDir
+    Path dir;
+
+    private Path versionJson;
+    private Path jar;
+    private Path missing;
+    private Path natives;
+
+    @BeforeEach
+    void createInputs() throws IOException {
+        versionJson = Files.writeString(dir.resolve("1.21.json"), "{}");
+        jar = Files.write(dir.resolve("lib.jar"), new byte[] { 1, 2, 3 });
+        missing = dir.resolve("missing.jar");
+        natives = Files.createDirectories(dir.resolve("natives"));
+    }
+
+    @Test
+    void staysValidAcrossSerialization() throws IOException {
+        LaunchPlan plan = reload(sealedPlan());
+
+        assertTrue(plan.isValidFor(SETTINGS));
+        assertEquals(ASSETS, plan.getAssetIndex());
+        assertEquals(natives.toAbsolutePath(), plan.getNativesDir());
+        assertEquals(List.of("java", "-Xmx2G", "-Dextra", "-cp", jar.toAbsolutePath().toString(), "Main", "--demo"),
+                plan.toCommand("java", List.of("-Dextra")));
+    }
+
+    @Test
+    void invalidatedBySettingsOrVersionJson() throws IOException {
+        LaunchPlan plan = reload(sealedPlan());
+        assertFalse(plan.isValidFor(Map.of("version", "1.21", "javaPath", "/opt/java")));
+
+        Files.writeString(versionJson, "{\"changed\":true}");
+        assertFalse(plan.isValidFor(SETTINGS));
+    }
+
+    @Test
+    void invalidatedByClasspathJarChange() throws IOException {
+        LaunchPlan plan = reload(sealedPlan());
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 5_000));
+        assertFalse(plan.isValidFor(SETTINGS));
+    }
+
+    @Test
+    void invalidatedWhenMissingLibraryAppears() throws IOException {
+        LaunchPlan plan = reload(sealedPlan());
+        Files.write(missing, new byte[] { 4 });
+        assertFalse(plan.isValidFor(SETTINGS));
+    }
+
+    @Test
+    void invalidatedWhenNativesDirectoryIsDeleted() throws IOException {
+        LaunchPlan plan = reload(sealedPlan());
+        Files.delete(natives);
+        assertFalse(plan.isValidFor(SETTINGS));
+    }
+
+    @Test
+    void plansWithoutNativesAreNotCached() throws IOException {
+        LaunchPlan plan = new LaunchPlan(List.of(versionJson), List.of(), SETTINGS, jar.toString(), List.of(), "Main",
+                List.of(), null, null);
+        plan.seal();
+        assertFalse(plan.isCacheable());
+        assertNull(plan.getNativesDir());
+    }
+
+    private LaunchPlan sealedPlan() throws IOException {
+        LaunchPlan plan = new LaunchPlan(List.of(versionJson), List.of(missing), SETTINGS,
+                jar.toAbsolutePath().toString(), List.of("-Xmx2G"), "Main", List.of("--demo"), ASSETS, natives);
+        plan.seal();
+        assertTrue(plan.isCacheable());
+        return plan;
+    }
+
+    private static LaunchPlan reload(LaunchPlan plan) {
+        Gson gson = new Gson();
+        return gson.fromJson(gson.toJson(plan), LaunchPlan.class);
+    }
+}
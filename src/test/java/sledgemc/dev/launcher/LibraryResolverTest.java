@@ -0,0 +1,115 @@
+/**
+ * @summary Exercises LibraryResolver's OS and architecture rules and its inheritsFrom chain resolution.
+ */
+package sledgemc.dev.launcher;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LibraryResolverTest {
+
+    @TempDir
+    Path mcDir;
+
+    @Test
+    void normalizesArchitectures() {
+        assertEquals("x86", LibraryResolver.normalizeArch("x86"));
+        assertEquals("x86", LibraryResolver.normalizeArch("i686"));
+        assertEquals("x86_64", LibraryResolver.normalizeArch("amd64"));
+        assertEquals("x86_64", LibraryResolver.normalizeArch("x86_64"));
+        assertEquals("arm64", LibraryResolver.normalizeArch("aarch64"));
+        assertEquals("arm64", LibraryResolver.normalizeArch("ARM64"));
+    }
+
+    @Test
+    void matchesArchRulesExactly() {
+        JsonArray arm64Only = rules("[{\"action\":\"allow\",\"os\":{\"arch\":\"arm64\"}}]");
+        assertTrue(LibraryResolver.isAllowed(arm64Only, "osx", "arm64"));
+        assertFalse(LibraryResolver.isAllowed(arm64Only, "osx", "x86_64"));
+        assertFalse(LibraryResolver.isAllowed(arm64Only, "windows", "x86"));
+
+        JsonArray x86Only = rules("[{\"action\":\"allow\",\"os\":{\"arch\":\"x86\"}}]");
+        assertTrue(LibraryResolver.isAllowed(x86Only, "windows", "x86"));
+        assertFalse(LibraryResolver.isAllowed(x86Only, "windows", "x86_64"));
+        assertFalse(LibraryResolver.isAllowed(x86Only, "windows", "arm64"));
+    }
+
+    @Test
+    void appliesLastMatchingRule() {
+        JsonArray allButOsx = rules("[{\"action\":\"allow\"},{\"action\":\"disallow\",\"os\":{\"name\":\"osx\"}}]");
+        assertTrue(LibraryResolver.isAllowed(allButOsx, "linux", "x86_64"));
+        assertFalse(LibraryResolver.isAllowed(allButOsx, "osx", "arm64"));
+
+        JsonArray feature = rules("[{\"action\":\"allow\",\"features\":{\"is_demo_user\":true}}]");
+        assertFalse(LibraryResolver.isAllowed(feature, "linux", "x86_64"));
+        assertTrue(LibraryResolver.isAllowed(null, "linux", "x86_64"));
+    }
+
+    @Test
+    void childLibrariesOverrideParentArtifacts() throws IOException {
+        writeVersion("1.21", """
+                {"assetIndex":{"id":"17","sha1":"abc","size":10,"url":"http://example/17.json"},
+                 "libraries":[
+                   {"name":"com.example:shared:1.0"},
+                   {"name":"com.example:base:2.0"}]}""");
+        writeVersion("modded", """
+                {"inheritsFrom":"1.21",
+                 "libraries":[
+                   {"name":"com.example:shared:1.1"},
+                   {"name":"com.example:extra:3.0","downloads":{"artifact":{"path":"custom/extra.jar"}}}]}""");
+
+        LibraryResolver resolver = new LibraryResolver(mcDir, "modded");
+
+        Path libraries = mcDir.resolve("libraries");
+        assertEquals(List.of(
+                libraries.resolve("com/example/shared/1.1/shared-1.1.jar"),
+                libraries.resolve("custom/extra.jar"),
+                libraries.resolve("com/example/base/2.0/base-2.0.jar")), resolver.resolveLibraries());
+        assertEquals(List.of(versionJson("modded"), versionJson("1.21")), resolver.getVersionFiles());
+        assertEquals(new LibraryResolver.AssetIndex("17", "abc", 10, "http://example/17.json"),
+                resolver.getAssetIndex());
+    }
+
+    @Test
+    void rejectsCircularInheritance() throws IOException {
+        writeVersion("a", "{\"inheritsFrom\":\"b\"}");
+        writeVersion("b", "{\"inheritsFrom\":\"a\"}");
+        assertThrows(IOException.class, () -> new LibraryResolver(mcDir, "a"));
+    }
+
+    @Test
+    void reportsMissingParent() throws IOException {
+        writeVersion("orphan", "{\"inheritsFrom\":\"gone\"}");
+        assertThrows(IOException.class, () -> new LibraryResolver(mcDir, "orphan"));
+    }
+
+    @Test
+    void buildsMavenPaths() {
+        assertEquals("org/lwjgl/lwjgl/3.3.3/lwjgl-3.3.3-natives-linux.jar",
+                LibraryResolver.mavenPath("org.lwjgl:lwjgl:3.3.3:natives-linux"));
+        assertEquals("com/example/data/1.0/data-1.0.zip", LibraryResolver.mavenPath("com.example:data:1.0@zip"));
+        assertThrows(IllegalArgumentException.class, () -> LibraryResolver.mavenPath("broken"));
+    }
+
+    private void writeVersion(String version, String json) throws IOException {
+        Files.createDirectories(versionJson(version).getParent());
+        Files.writeString(versionJson(version), json);
+    }
+
+    private Path versionJson(String version) {
+        return mcDir.resolve("versions").resolve(version).resolve(version + ".json");
+    }
+
+    private static JsonArray rules(String json) {
+        return JsonParser.parseString(json).getAsJsonArray();
+    }
+}
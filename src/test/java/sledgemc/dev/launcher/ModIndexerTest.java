@@ -0,0 +1,94 @@
+/**
+ * @summary Exercises ModIndexer metadata scanning, cache reuse, and when the cache file is rewritten.
+ */
+package sledgemc.dev.launcher;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModIndexerTest {
+
+    private static final FileTime OLD = FileTime.fromMillis(1_000_000);
+
+    @TempDir
+    Path dir;
+
+    private Path mods;
+    private Path cache;
+
+    @BeforeEach
+    void createDirs() throws IOException {
+        mods = Files.createDirectories(dir.resolve("mods"));
+        cache = dir.resolve("cache").resolve("mods.json");
+    }
+
+    @Test
+    void readsMetadataAndReusesUnchangedJars() throws IOException {
+        modJar("example.jar", "{\"id\":\"example\",\"name\":\"Example\",\"version\":\"1.0\",\"mixins\":[\"a.json\"]}");
+
+        ModIndexer.Result first = new ModIndexer(mods, cache).index();
+        assertEquals(1, first.scanned());
+        ModIndexer.ModInfo info = first.mods().get(0);
+        assertEquals("example", info.id());
+        assertEquals("Example", info.name());
+        assertEquals("1.0", info.version());
+        assertEquals(List.of("a.json"), info.mixinConfigs());
+
+        ModIndexer.Result second = new ModIndexer(mods, cache).index();
+        assertEquals(0, second.scanned());
+        assertEquals(1, second.reused());
+        assertEquals(first.mods(), second.mods());
+    }
+
+    @Test
+    void unreadableJarDoesNotRewriteTheCache() throws IOException {
+        modJar("example.jar", "{\"id\":\"example\"}");
+        Files.writeString(mods.resolve("broken.jar"), "not a zip");
+
+        ModIndexer.Result first = new ModIndexer(mods, cache).index();
+        assertEquals(1, first.mods().size());
+        assertTrue(Files.exists(cache));
+        Files.setLastModifiedTime(cache, OLD);
+
+        new ModIndexer(mods, cache).index();
+        assertEquals(OLD, Files.getLastModifiedTime(cache));
+    }
+
+    @Test
+    void rewritesTheCacheWhenAJarIsRemoved() throws IOException {
+        modJar("first.jar", "{\"id\":\"first\"}");
+        Path second = modJar("second.jar", "{\"id\":\"second\"}");
+        new ModIndexer(mods, cache).index();
+        Files.setLastModifiedTime(cache, OLD);
+
+        Files.delete(second);
+        ModIndexer.Result result = new ModIndexer(mods, cache).index();
+
+        assertEquals(0, result.scanned());
+        assertEquals(1, result.mods().size());
+        assertNotEquals(OLD, Files.getLastModifiedTime(cache));
+    }
+
+    private Path modJar(String name, String metadata) throws IOException {
+        Path jar = mods.resolve(name);
+        try (OutputStream fileOut = Files.newOutputStream(jar); ZipOutputStream out = new ZipOutputStream(fileOut)) {
+            out.putNextEntry(new ZipEntry(ModIndexer.METADATA_FILE));
+            out.write(metadata.getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        return jar;
+    }
+}
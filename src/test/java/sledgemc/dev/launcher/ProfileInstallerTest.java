@@ -0,0 +1,96 @@
+/**
+ * @summary Exercises the streamed profile JSON rewrite against the vanilla version JSON it is built from.
+ */
+package sledgemc.dev.launcher;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfileInstallerTest {
+
+    private static final String VANILLA = """
+            {
+              "arguments": {"game": ["--username", {"rules": [{"action": "allow"}], "value": ["--demo"]}]},
+              "id": "1.21.11",
+              "javaVersion": {"majorVersion": 21},
+              "libraries": [
+                {"name": "com.mojang:brigadier:1.3.10", "downloads": {"artifact": {"size": 80000, "url": null}}}
+              ],
+              "mainClass": "net.minecraft.client.main.Main",
+              "minimumLauncherVersion": 21,
+              "complianceLevel": 1.0,
+              "logging": {}
+            }
+            """;
+
+    @TempDir
+    Path dir;
+
+    private final ProfileInstaller installer = new ProfileInstaller("unused", "1.21.11");
+
+    @Test
+    void replacesIdMainClassAndPrependsLibraries() throws IOException {
+        JsonObject vanilla = JsonParser.parseString(VANILLA).getAsJsonObject();
+        JsonObject profile = rewrite(VANILLA);
+
+        assertEquals("SledgeMC-1.21.11", profile.get("id").getAsString());
+        assertEquals("sledgemc.dev.loader.SledgeBootstrap", profile.get("mainClass").getAsString());
+
+        JsonArray libraries = profile.getAsJsonArray("libraries");
+        assertEquals(List.of("com.github.Astera-Solutions:SledgeMC-Loader:1.21.11",
+                "com.github.Astera-Solutions:SledgeMC-Agent:agent-v1.0.0",
+                "com.github.Astera-Solutions:Sledge-API:v1.0.0"),
+                libraries.asList().subList(0, 3).stream().map(l -> l.getAsJsonObject().get("name").getAsString())
+                        .toList());
+        assertEquals(vanilla.getAsJsonArray("libraries").get(0), libraries.get(3));
+        assertEquals(4, libraries.size());
+
+        for (String key : vanilla.keySet()) {
+            if (!key.equals("id") && !key.equals("mainClass") && !key.equals("libraries"))
+                assertEquals(vanilla.get(key), profile.get(key), key);
+        }
+        assertEquals(vanilla.keySet(), profile.keySet());
+    }
+
+    @Test
+    void keepsNumbersAsWritten() throws IOException {
+        String json = new String(rewriteBytes(VANILLA), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"complianceLevel\": 1.0"), json);
+        assertTrue(json.contains("\"size\": 80000"), json);
+    }
+
+    @Test
+    void addsMissingFields() throws IOException {
+        JsonObject profile = rewrite("{\"type\": \"release\"}");
+
+        assertEquals("release", profile.get("type").getAsString());
+        assertEquals("SledgeMC-1.21.11", profile.get("id").getAsString());
+        assertEquals("sledgemc.dev.loader.SledgeBootstrap", profile.get("mainClass").getAsString());
+        assertEquals(3, profile.getAsJsonArray("libraries").size());
+    }
+
+    @Test
+    void isDeterministic() throws IOException {
+        assertArrayEquals(rewriteBytes(VANILLA), rewriteBytes(VANILLA));
+    }
+
+    private JsonObject rewrite(String vanilla) throws IOException {
+        return JsonParser.parseString(new String(rewriteBytes(vanilla), StandardCharsets.UTF_8)).getAsJsonObject();
+    }
+
+    private byte[] rewriteBytes(String vanilla) throws IOException {
+        Path file = Files.writeString(dir.resolve("vanilla.json"), vanilla);
+        return installer.rewriteVersionJson(file, installer.getProfileName());
+    }
+}
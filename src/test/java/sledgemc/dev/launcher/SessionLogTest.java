@@ -0,0 +1,111 @@
+/**
+ * @summary Exercises SessionLog record detection and rotation, and SessionLogReader level and time-window queries.
+ */
+package sledgemc.dev.launcher;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionLogTest {
+
+    private static final String ERROR = "[12:00:01] [Render thread/ERROR]: Unreported exception thrown!";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void onlyTimestampedOrBracketedLinesStartRecords() {
+        assertEquals(SessionLog.Level.ERROR, SessionLog.parseLevel(ERROR));
+        assertEquals(SessionLog.Level.WARN, SessionLog.parseLevel("[12:00:00] [Worker-Main-1/WARN]: slow"));
+        assertEquals(SessionLog.Level.INFO, SessionLog.parseLevel("[SledgeMC] Launching 1.21"));
+        assertEquals(SessionLog.Level.DEBUG, SessionLog.parseLevel("2026-10-18 12:00:00 [main/DEBUG]: x"));
+
+        assertNull(SessionLog.parseLevel("java.lang.RuntimeException: boom"));
+        assertNull(SessionLog.parseLevel("\tat net.minecraft.client.Main.main(Main.java:1)"));
+        assertNull(SessionLog.parseLevel("Caused by: java.io.IOException: closed"));
+        assertNull(SessionLog.parseLevel("12 mods loaded"));
+        assertNull(SessionLog.parseLevel(""));
+    }
+
+    @Test
+    void readsErrorsWithTheirStackTraces() throws IOException {
+        try (SessionLog log = new SessionLog(dir, SessionLog.DEFAULT_SEGMENT_BYTES)) {
+            log.append("[12:00:00] [Render thread/INFO]: Setting user: Player");
+            log.append(ERROR);
+            log.append("java.lang.RuntimeException: boom");
+            log.append("\tat net.minecraft.client.Main.main(Main.java:1)");
+            log.append("[12:00:02] [Render thread/INFO]: Stopping!");
+        }
+
+        assertEquals(List.of(ERROR, "java.lang.RuntimeException: boom",
+                "\tat net.minecraft.client.Main.main(Main.java:1)"), readLevel(SessionLog.Level.WARN));
+        assertEquals(5, readLast().size());
+    }
+
+    @Test
+    void readsContinuationLinesLongerThanTheReadBuffer() throws IOException {
+        String huge = "java.lang.IllegalStateException: " + "x".repeat(200_000);
+        try (SessionLog log = new SessionLog(dir, SessionLog.DEFAULT_SEGMENT_BYTES)) {
+            log.append(ERROR);
+            log.append(huge);
+            log.append("[12:00:02] [Render thread/ERROR]: again");
+        }
+
+        assertEquals(List.of(ERROR, huge, "[12:00:02] [Render thread/ERROR]: again"),
+                readLevel(SessionLog.Level.ERROR));
+    }
+
+    @Test
+    void rotatesInsideStackTracesAndReadsAcrossSegments() throws IOException {
+        long segmentBytes = 512;
+        List<String> trace = new ArrayList<>();
+        trace.add(ERROR);
+        trace.add("java.lang.RuntimeException: boom");
+        for (int i = 0; i < 100; i++) {
+            trace.add("\tat net.minecraft.client.Frame" + i + ".run(Frame.java:" + i + ")");
+        }
+
+        try (SessionLog log = new SessionLog(dir, segmentBytes)) {
+            log.append("[12:00:00] [Render thread/INFO]: before");
+            for (String line : trace) {
+                log.append(line);
+            }
+            log.append("[12:00:02] [Render thread/INFO]: after");
+        }
+
+        Path first = SessionLog.segmentPath(dir, 0);
+        Path firstGz = first.resolveSibling(first.getFileName() + ".gz");
+        assertTrue(Files.exists(firstGz));
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(firstGz))) {
+            assertTrue(in.readAllBytes().length <= segmentBytes);
+        }
+        Path sixth = SessionLog.segmentPath(dir, 5);
+        assertTrue(Files.exists(sixth.resolveSibling(sixth.getFileName() + ".gz")));
+
+        assertEquals(trace, readLevel(SessionLog.Level.ERROR));
+        assertEquals(trace.size() + 2, readLast().size());
+    }
+
+    private List<String> readLevel(SessionLog.Level level) throws IOException {
+        List<String> lines = new ArrayList<>();
+        new SessionLogReader(dir).readLevel(level, lines::add);
+        return lines;
+    }
+
+    private List<String> readLast() throws IOException {
+        List<String> lines = new ArrayList<>();
+        new SessionLogReader(dir).readLast(Duration.ofMinutes(1), lines::add);
+        return lines;
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * @summary Round-trips ZipExportWriter archives through java.util.zip to check headers, methods, CRCs and content.
+ */
+package sledgemc.dev.launcher;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipExportWriterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsThroughZipFile() throws IOException {
+        byte[] text = "options.txt\n".repeat(500).getBytes(StandardCharsets.UTF_8);
+        byte[] jar = new byte[20_000];
+        new Random(7).nextBytes(jar);
+        Path jarFile = Files.write(dir.resolve("mod-object"), jar);
+        Path textFile = Files.write(dir.resolve("options.txt"), text);
+        LocalDateTime modified = LocalDateTime.of(2024, 5, 17, 10, 30, 14);
+        Files.setLastModifiedTime(textFile, FileTime.from(modified.atZone(ZoneId.systemDefault()).toInstant()));
+
+        ZipExportWriter writer = new ZipExportWriter();
+        writer.addString("manifest.json", "{\"name\":\"pack\"}");
+        writer.addFile("mods/example.jar", jarFile);
+        writer.addFile("config/options.txt", textFile);
+        writer.addBytes("empty.txt", new byte[0]);
+        writer.addString("überschrift/ß.txt", "unicode");
+        Path zip = dir.resolve("out").resolve("export.zip");
+        writer.write(zip);
+
+        try (ZipFile file = new ZipFile(zip.toFile())) {
+            assertEquals(List.of("manifest.json", "mods/example.jar", "config/options.txt", "empty.txt",
+                    "überschrift/ß.txt"), Collections.list(file.entries()).stream().map(ZipEntry::getName).toList());
+
+            ZipEntry stored = file.getEntry("mods/example.jar");
+            assertEquals(ZipEntry.STORED, stored.getMethod());
+            assertEquals(jar.length, stored.getCompressedSize());
+            assertArrayEquals(jar, read(file, stored));
+
+            ZipEntry deflated = file.getEntry("config/options.txt");
+            assertEquals(ZipEntry.DEFLATED, deflated.getMethod());
+            assertTrue(deflated.getCompressedSize() < text.length);
+            assertArrayEquals(text, read(file, deflated));
+            assertEquals(modified, deflated.getTimeLocal());
+
+            assertEquals("{\"name\":\"pack\"}", new String(read(file, file.getEntry("manifest.json")),
+                    StandardCharsets.UTF_8));
+            assertArrayEquals(new byte[0], read(file, file.getEntry("empty.txt")));
+            assertEquals("unicode", new String(read(file, file.getEntry("überschrift/ß.txt")),
+                    StandardCharsets.UTF_8));
+
+            for (ZipEntry entry : Collections.list(file.entries())) {
+                CRC32 crc = new CRC32();
+                crc.update(read(file, entry));
+                assertEquals(crc.getValue(), entry.getCrc(), entry.getName());
+            }
+        }
+    }
+
+    @Test
+    void streamsLikeAnyZip() throws IOException {
+        ZipExportWriter writer = new ZipExportWriter();
+        writer.addString("a.txt", "first");
+        writer.addString("b.png", "second");
+        Path zip = dir.resolve("export.zip");
+        writer.write(zip);
+
+        try (ZipInputStream in = new ZipInputStream(Files.newInputStream(zip))) {
+            assertEquals("a.txt", in.getNextEntry().getName());
+            assertEquals("first", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            assertEquals("b.png", in.getNextEntry().getName());
+            assertEquals("second", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            assertNull(in.getNextEntry());
+        }
+    }
+
+    @Test
+    void rejectsDuplicateNames() {
+        ZipExportWriter writer = new ZipExportWriter();
+        writer.addString("a.txt", "first");
+        assertThrows(IllegalArgumentException.class, () -> writer.addString("a.txt", "second"));
+    }
+
+    private static byte[] read(ZipFile file, ZipEntry entry) throws IOException {
+        try (InputStream in = file.getInputStream(entry)) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * @summary Checks that compiled binary mappings answer every lookup the same way as the mapping-io tree they came from.
+ */
+package sledgemc.dev.transform;
+
+import net.fabricmc.mappingio.MappingReader;
+import net.fabricmc.mappingio.tree.MappingTree;
+import net.fabricmc.mappingio.tree.MemoryMappingTree;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryMappingsTest {
+
+    private static final String NAMESPACE = "intermediary";
+    private static final byte[] SOURCE_HASH = new byte[32];
+
+    static {
+        Arrays.fill(SOURCE_HASH, (byte) 7);
+    }
+
+    @TempDir
+    Path dir;
+
+    private MemoryMappingTree tree;
+    private int srcId;
+    private int dstId;
+
+    @BeforeEach
+    void readTree() throws IOException {
+        StringBuilder tiny = new StringBuilder("tiny\t2\t0\tintermediary\tofficial\n");
+        for (int i = 0; i < 300; i++) {
+            String owner = i == 0 ? "class_0" : "net/minecraft/class_" + i;
+            tiny.append("c\t").append(owner).append('\t').append(obfuscated(i)).append('\n');
+            tiny.append("\tm\t()V\tmethod_").append(i).append("\ta\n");
+            // same name with a second descriptor, plus two names whose String.hashCode() collide
+            tiny.append("\tm\t(Lnet/minecraft/class_1;)I\tmethod_").append(i).append("\tb\n");
+            tiny.append("\tm\t()V\tAa\tc\n");
+            tiny.append("\tm\t()V\tBB\td\n");
+            tiny.append("\tf\tI\tfield_").append(i).append("\te\n");
+            tiny.append("\tf\tJ\tfield_").append(i).append("_long\tf\n");
+        }
+        // class names with colliding hashes as well
+        tiny.append("c\tnet/minecraft/Aa\tzz\n");
+        tiny.append("c\tnet/minecraft/BB\tzy\n");
+
+        tree = new MemoryMappingTree();
+        MappingReader.read(new StringReader(tiny.toString()), tree);
+        srcId = tree.getNamespaceId("intermediary");
+        dstId = tree.getNamespaceId("official");
+    }
+
+    @Test
+    void matchesMappingTree() throws IOException {
+        assertMatchesTree(BinaryMappings.wrap(compile()));
+    }
+
+    @Test
+    void roundTripsThroughFile() throws IOException {
+        Path file = dir.resolve("mappings.bin");
+        BinaryMappings.write(compile(), file);
+
+        BinaryMappings opened = BinaryMappings.open(file, SOURCE_HASH, NAMESPACE);
+        assertNotNull(opened);
+        assertMatchesTree(opened);
+    }
+
+    @Test
+    void rejectsStaleOrDamagedFiles() throws IOException {
+        Path file = dir.resolve("mappings.bin");
+        byte[] compiled = compile();
+        BinaryMappings.write(compiled, file);
+
+        byte[] otherHash = SOURCE_HASH.clone();
+        otherHash[0] ^= 1;
+        assertNull(BinaryMappings.open(file, otherHash, NAMESPACE));
+        assertNull(BinaryMappings.open(file, SOURCE_HASH, "mojang"));
+        assertNull(BinaryMappings.open(dir.resolve("missing.bin"), SOURCE_HASH, NAMESPACE));
+
+        Files.write(file, Arrays.copyOf(compiled, compiled.length - 4));
+        assertNull(BinaryMappings.open(file, SOURCE_HASH, NAMESPACE));
+
+        byte[] otherVersion = compiled.clone();
+        otherVersion[7] ^= 1;
+        Files.write(file, otherVersion);
+        assertNull(BinaryMappings.open(file, SOURCE_HASH, NAMESPACE));
+    }
+
+    private byte[] compile() throws IOException {
+        return BinaryMappings.compile(tree, srcId, dstId, NAMESPACE, SOURCE_HASH);
+    }
+
+    private void assertMatchesTree(BinaryMappings mappings) {
+        assertEquals(tree.getClasses().size(), mappings.getClassCount());
+        int methods = 0;
+        int fields = 0;
+
+        for (MappingTree.ClassMapping cls : tree.getClasses()) {
+            String owner = cls.getName(srcId);
+            String dotted = owner.replace('/', '.');
+            String target = cls.getName(dstId);
+
+            assertEquals(target, mappings.mapClass(owner));
+            assertEquals(target, mappings.mapClass(dotted));
+            assertEquals(target.replace('/', '.'), mappings.mapClassDotted(owner));
+            assertEquals(owner, mappings.unmapClass(target));
+
+            Set<String> byName = new HashSet<>();
+            for (MappingTree.MethodMapping method : cls.getMethods()) {
+                String name = method.getName(srcId);
+                String desc = method.getDesc(srcId);
+                assertEquals(method.getName(dstId), mappings.mapMethod(owner, name, desc), owner + "." + name + desc);
+                assertEquals(method.getName(dstId), mappings.mapMethod(dotted, name, desc), dotted + "." + name + desc);
+                if (byName.add(name)) {
+                    String any = mappings.mapMethod(owner, name, null);
+                    assertTrue(cls.getMethods().stream()
+                            .anyMatch(m -> m.getName(srcId).equals(name) && m.getName(dstId).equals(any)));
+                }
+                methods++;
+            }
+            assertNull(mappings.mapMethod(owner, "method_none", "()V"));
+            assertNull(mappings.mapMethod(owner, "Aa", "(I)V"));
+
+            for (MappingTree.FieldMapping field : cls.getFields()) {
+                String name = field.getName(srcId);
+                assertEquals(field.getName(dstId), mappings.mapField(owner, name, field.getDesc(srcId)));
+                assertEquals(field.getName(dstId), mappings.mapField(dotted, name));
+                // a descriptor the file did not record falls back to the name
+                assertEquals(field.getName(dstId), mappings.mapField(owner, name, "Ljava/lang/Object;"));
+                fields++;
+            }
+        }
+
+        assertEquals(methods, mappings.getMethodCount());
+        assertEquals(fields, mappings.getFieldCount());
+        assertNull(mappings.mapClass("net/minecraft/Unknown"));
+        assertNull(mappings.mapClass("net.minecraft.Unknown"));
+        assertNull(mappings.unmapClass("unknown"));
+        assertNull(mappings.mapMethod("net/minecraft/Unknown", "method_1", "()V"));
+        assertNull(mappings.mapField("net/minecraft/Unknown", "field_1"));
+    }
+
+    private static String obfuscated(int index) {
+        StringBuilder name = new StringBuilder();
+        do {
+            name.append((char) ('a' + index % 26));
+            index /= 26;
+        } while (index > 0);
+        return name.toString();
+    }
+}
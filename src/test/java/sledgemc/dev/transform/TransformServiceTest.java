@@ -0,0 +1,199 @@
+/**
+ * @summary Exercises TransformService: class name normalization, and pre-transformed classes being skipped only while the chain is unchanged.
+ */
+package sledgemc.dev.transform;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransformServiceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void skipsPretransformedClasses() throws IOException {
+        TransformService service = new TransformService();
+        Counting first = new Counting("first");
+        service.registerTransformer(first);
+
+        service.pretransform(gameJar(), dir.resolve("cache"));
+        assertEquals(2, first.calls.get());
+        assertEquals(2, service.getPretransformedCount());
+
+        service.transform("pkg.Foo", classBytes("pkg/Foo"));
+        assertEquals(2, first.calls.get());
+    }
+
+    @Test
+    void runsTransformersRegisteredAfterPretransform() throws IOException {
+        TransformService service = new TransformService();
+        service.registerTransformer(new Counting("first"));
+        service.pretransform(gameJar(), dir.resolve("cache"));
+
+        Counting late = new Counting("late");
+        service.registerTransformer(late);
+        assertEquals(0, service.getPretransformedCount());
+
+        service.transform("pkg.Foo", classBytes("pkg/Foo"));
+        assertEquals(1, late.calls.get());
+    }
+
+    @Test
+    void skipsAgainOnceRebuiltForTheNewChain() throws IOException {
+        TransformService service = new TransformService();
+        service.registerTransformer(new Counting("first"));
+        Path jar = gameJar();
+        Path before = service.pretransform(jar, dir.resolve("cache"));
+
+        Counting late = new Counting("late");
+        service.registerTransformer(late);
+        Path after = service.pretransform(jar, dir.resolve("cache"));
+        assertNotEquals(before, after);
+        assertEquals(2, late.calls.get());
+
+        service.transform("pkg.Bar", classBytes("pkg/Bar"));
+        assertEquals(2, late.calls.get());
+    }
+
+    @Test
+    void dispatchesInternalAndDottedNamesAlike() {
+        TransformService service = new TransformService();
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        service.registerTransformer(new TransformerIndexTest.Target("client", 1000, Set.of(),
+                Set.of("net.minecraft.client")) {
+            @Override
+            public byte[] transform(String className, byte[] classBytes) {
+                seen.add(className);
+                return classBytes;
+            }
+        });
+
+        service.transform("net/minecraft/client/Main", classBytes("net/minecraft/client/Main"));
+        service.transform("net.minecraft.client.Main", classBytes("net/minecraft/client/Main"));
+        service.transform("net/minecraft/server/Main", classBytes("net/minecraft/server/Main"));
+
+        assertEquals(List.of("net.minecraft.client.Main", "net.minecraft.client.Main"), seen);
+    }
+
+    @Test
+    void writesNodeChangesWithoutLoadingReferencedClasses() {
+        TransformService service = new TransformService();
+        service.registerTransformer(new ClassNodeTransformer() {
+            @Override
+            public boolean shouldTransform(String className) {
+                return true;
+            }
+
+            @Override
+            public boolean transform(String className, ClassNode node) {
+                node.fields.add(new FieldNode(Opcodes.ACC_PUBLIC, "added", "I", null, null));
+                return true;
+            }
+        });
+
+        byte[] result = service.transform("pkg/Merge", mergingClass());
+
+        ClassNode node = new ClassNode();
+        new ClassReader(result).accept(node, 0);
+        assertEquals("added", node.fields.get(0).name);
+        assertEquals(1, node.methods.size());
+    }
+
+    /**
+     * A class whose only method merges two types that do not exist at runtime on a branch, so recomputing its frames
+     * would have to load them.
+     */
+    private static byte[] mergingClass() {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                return "java/lang/Object";
+            }
+        };
+        writer.visit(Opcodes.V21, Opcodes.ACC_PUBLIC, "pkg/Merge", null, "java/lang/Object", null);
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "pick",
+                "(ZLmissing/A;Lmissing/B;)Ljava/lang/Object;", null, null);
+        method.visitCode();
+        Label other = new Label();
+        Label done = new Label();
+        method.visitVarInsn(Opcodes.ILOAD, 0);
+        method.visitJumpInsn(Opcodes.IFEQ, other);
+        method.visitVarInsn(Opcodes.ALOAD, 1);
+        method.visitJumpInsn(Opcodes.GOTO, done);
+        method.visitLabel(other);
+        method.visitVarInsn(Opcodes.ALOAD, 2);
+        method.visitLabel(done);
+        method.visitInsn(Opcodes.ARETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private Path gameJar() throws IOException {
+        Path jar = dir.resolve("game.jar");
+        try (OutputStream fileOut = Files.newOutputStream(jar); ZipOutputStream out = new ZipOutputStream(fileOut)) {
+            for (String name : new String[] { "pkg/Foo", "pkg/Bar" }) {
+                out.putNextEntry(new ZipEntry(name + ".class"));
+                out.write(classBytes(name));
+                out.closeEntry();
+            }
+            out.putNextEntry(new ZipEntry("assets/readme.txt"));
+            out.write("not a class".getBytes());
+            out.closeEntry();
+        }
+        return jar;
+    }
+
+    private static byte[] classBytes(String internalName) {
+        ClassWriter writer = new ClassWriter(0);
+        writer.visit(Opcodes.V21, Opcodes.ACC_PUBLIC, internalName, null, "java/lang/Object", null);
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static final class Counting implements ClassTransformer {
+
+        private final String name;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        Counting(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean shouldTransform(String className) {
+            return true;
+        }
+
+        @Override
+        public byte[] transform(String className, byte[] classBytes) {
+            calls.incrementAndGet();
+            return classBytes;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
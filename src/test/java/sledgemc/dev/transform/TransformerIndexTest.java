@@ -0,0 +1,118 @@
+/**
+ * @summary Exercises TransformerIndex dispatch: priority order, class and package targets, wildcards and fingerprints.
+ */
+package sledgemc.dev.transform;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransformerIndexTest {
+
+    @Test
+    void ordersByPriorityThenRegistration() {
+        Target late = new Target("late", 2000, Set.of(), Set.of());
+        Target firstTie = new Target("firstTie", 1000, Set.of(), Set.of());
+        Target secondTie = new Target("secondTie", 1000, Set.of(), Set.of());
+        Target early = new Target("early", 10, Set.of(), Set.of());
+
+        TransformerIndex index = new TransformerIndex(List.of(late, firstTie, secondTie, early));
+
+        assertEquals(List.of(early, firstTie, secondTie, late), index.ordered());
+        assertEquals(List.of(early, firstTie, secondTie, late), index.candidates("any.Class"));
+    }
+
+    @Test
+    void dispatchesPackageTargetsToSubpackagesOnly() {
+        Target client = new Target("client", 1000, Set.of(), Set.of("net.minecraft.client"));
+        Target slashed = new Target("slashed", 1000, Set.of(), Set.of("net/minecraft/server/"));
+
+        TransformerIndex index = new TransformerIndex(List.of(client, slashed));
+
+        assertEquals(List.of(client), index.candidates("net.minecraft.client.Main"));
+        assertEquals(List.of(client), index.candidates("net.minecraft.client.gui.Screen"));
+        assertEquals(List.of(), index.candidates("net.minecraft.clientx.Main"));
+        assertEquals(List.of(), index.candidates("net.minecraft.Main"));
+        assertEquals(List.of(slashed), index.candidates("net.minecraft.server.Main"));
+        assertEquals(List.of(), index.candidates("Main"));
+    }
+
+    @Test
+    void mergesClassPackageAndWildcardTargetsInOrder() {
+        Target exact = new Target("exact", 50, Set.of("net/minecraft/client/Main"), Set.of());
+        Target pkg = new Target("pkg", 100, Set.of(), Set.of("net.minecraft"));
+        Target wildcard = new Target("wildcard", 10, Set.of(), Set.of());
+        Target both = new Target("both", 75, Set.of("net.minecraft.client.Main"), Set.of("net.minecraft.client"));
+
+        TransformerIndex index = new TransformerIndex(List.of(exact, pkg, wildcard, both));
+
+        assertEquals(List.of(wildcard, exact, both, pkg), index.candidates("net.minecraft.client.Main"));
+        assertEquals(List.of(wildcard, both, pkg), index.candidates("net.minecraft.client.Other"));
+        assertEquals(List.of(wildcard), index.candidates("com.example.Mod"));
+    }
+
+    @Test
+    void fingerprintFollowsChainOrderAndVersions() {
+        Target a = new Target("a", 1000, Set.of(), Set.of());
+        Target b = new Target("b", 1000, Set.of(), Set.of());
+
+        String fingerprint = new TransformerIndex(List.of(a, b)).fingerprint();
+        assertEquals(fingerprint, new TransformerIndex(List.of(a, b)).fingerprint());
+        assertNotEquals(fingerprint, new TransformerIndex(List.of(b, a)).fingerprint());
+        assertNotEquals(fingerprint, new TransformerIndex(List.of(a)).fingerprint());
+        assertNotEquals(fingerprint, TransformerIndex.EMPTY.fingerprint());
+    }
+
+    static class Target implements ClassTransformer {
+
+        private final String name;
+        private final int priority;
+        private final Set<String> classes;
+        private final Set<String> packages;
+
+        Target(String name, int priority, Set<String> classes, Set<String> packages) {
+            this.name = name;
+            this.priority = priority;
+            this.classes = classes;
+            this.packages = packages;
+        }
+
+        @Override
+        public boolean shouldTransform(String className) {
+            return true;
+        }
+
+        @Override
+        public byte[] transform(String className, byte[] classBytes) {
+            return classBytes;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public Set<String> getTargetClasses() {
+            return classes;
+        }
+
+        @Override
+        public Set<String> getTargetPackages() {
+            return packages;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}